@@ -80,12 +80,20 @@ public class Bitstream implements IBitstream {
 	protected int buf_len = BUF_LEN; // Usable buffer size (for partially filled buffers
 	protected byte[] buf; // Input buffer
 	protected int cur_bit; // Current bit position in buffer
-	protected int total_bits; // Total bits read/written
+	protected long total_bits; // Total bits read/written
 	protected boolean eof = false; // EOF of data flag
 	protected InputStream in = null; // Input file handle
 	protected OutputStream out = null; // Output file handle
 	protected int type; // Input or Output
 
+	/**
+	 * Constructs an input bitstream without a buffer, for subclasses that
+	 * fetch their data some other way.
+	 */
+	protected Bitstream() {
+		type = BS_INPUT;
+	}
+
 	/**
 	 * Constructs input bitstream.
 	 * @author Jonathan Shneier
@@ -232,10 +240,47 @@ public class Bitstream implements IBitstream {
 	 * @return the count of bits so far
 	 */
 	@Override
-	public int getpos() {
+	public long getpos() {
 		return total_bits;
 	}
 
+	/**
+	 * Discards the buffered data and refills the buffer from the current
+	 * position of the input, reusing the buffer. Call this after the input
+	 * has been repositioned; the bit position starts again at 0.
+	 * 
+	 * @exception FlIOException
+	 *                System I/O failed or End of File
+	 */
+	public void reset() throws FlIOException {
+		if (type != BS_INPUT)
+			throw new FlIOException(FlIOException.INVALIDIOTYPE);
+
+		buf_len = buf.length;
+		cur_bit = buf_len << 3; // Fake we are at the eof of buffer
+		total_bits = 0;
+		eof = false;
+		fill_buf();
+	}
+
+	/**
+	 * Reads from another input from now on, reusing the buffer. Any buffered
+	 * data of the previous input is discarded; the previous input is not
+	 * closed.
+	 * 
+	 * @param input the new input
+	 * @exception FlIOException
+	 *                System I/O failed or End of File
+	 */
+	public void rebind(InputStream input) throws FlIOException {
+		if (type != BS_INPUT)
+			throw new FlIOException(FlIOException.INVALIDIOTYPE);
+
+		in = input;
+		close_fd = false;
+		reset();
+	}
+
 	/**************/
 	/* Big endian */
 	/**************/
@@ -690,7 +735,7 @@ public class Bitstream implements IBitstream {
 
 		// align on next byte boundary
 		if ((total_bits % 8) != 0) {
-			s = (total_bits % 8);
+			s = (int) (total_bits % 8);
 			skipbits(8 - s);
 		}
 
@@ -307,7 +307,7 @@ public interface IBitstream {
 	 * 
 	 * @return The current bit position
 	 */
-	int getpos();
+	long getpos();
 
 	/**
 	 * Test end-of-data
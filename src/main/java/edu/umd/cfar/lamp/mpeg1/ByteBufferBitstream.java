@@ -0,0 +1,441 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.columbia.ee.flavor.Bitstream;
+import edu.columbia.ee.flavor.FlIOException;
+
+/**
+ * An input bitstream that reads straight from <code>ByteBuffer</code>s,
+ * such as views of a memory mapped file, without copying. The next bits
+ * are kept left-aligned in a 64-bit cache word, so peeking is a shift and
+ * skipping a subtract; the cache is refilled with one 64-bit read, except
+ * within the last 8 bytes of a view.
+ *
+ * The data may be split into several views, for example the payload of
+ * consecutive packets of a system stream; they are fetched from a
+ * {@link ViewSource} as the bitstream reaches the end of each one.
+ */
+public class ByteBufferBitstream extends Bitstream {
+	/**
+	 * Supplies views of a byte stream.
+	 */
+	public interface ViewSource {
+		/**
+		 * Gets a view of the contiguous bytes starting at the given position.
+		 *
+		 * @param position
+		 *            byte position in the stream
+		 * @return a buffer whose remaining bytes start at
+		 *         <code>position</code>, or <code>null</code> at the end of
+		 *         the stream
+		 */
+		ByteBuffer getView(long position) throws IOException;
+	}
+
+	private ViewSource source = null;
+
+	private ByteBuffer view; // current view, starting at index 0
+	private int limit; // number of bytes in view
+	private long viewPosition; // stream position of the first byte of view
+	private long bitPosition; // position in view, in bits
+	private long startPosition; // stream position getpos() counts from
+
+	// the bits at bitPosition, left-aligned and followed by zeros
+	private long cache;
+	private int cacheBits; // number of valid bits in cache
+
+	// views after the current one that have already been fetched
+	private List<ByteBuffer> following = new ArrayList<ByteBuffer>();
+	private boolean lastView = false;
+
+	/**
+	 * Constructs a bitstream over the remaining bytes of one buffer.
+	 *
+	 * @param buffer
+	 *            the data; its position and limit are not changed
+	 */
+	public ByteBufferBitstream(ByteBuffer buffer) {
+		setView(buffer.slice(), 0);
+		lastView = true;
+	}
+
+	/**
+	 * Constructs a bitstream over the views of a source.
+	 *
+	 * @param source
+	 *            the source of the data
+	 * @param position
+	 *            byte position to start at
+	 */
+	public ByteBufferBitstream(ViewSource source, long position) throws IOException {
+		this.source = source;
+		seek(position);
+	}
+
+	/**
+	 * Moves to another position of the source, reusing this bitstream. The bit
+	 * position starts again at 0.
+	 *
+	 * @param position
+	 *            byte position in the source
+	 */
+	public void seek(long position) throws IOException {
+		if (source == null)
+			throw new FlIOException(FlIOException.INVALIDIOTYPE);
+
+		following.clear();
+		lastView = false;
+		eof = false;
+		ByteBuffer buffer = source.getView(position);
+		if (buffer == null) {
+			buffer = ByteBuffer.allocate(0);
+			lastView = true;
+		}
+		setView(buffer.slice(), position);
+		startPosition = position;
+	}
+
+	/**
+	 * Moves to a later position of the source by reading forward through the
+	 * views, without fetching the current one again. Positions behind the
+	 * current one, or more than <code>maxDistance</code> bytes ahead of it,
+	 * are seeked to instead.
+	 *
+	 * @param position
+	 *            byte position in the source
+	 * @param maxDistance
+	 *            the farthest to read forward, in bytes
+	 */
+	public void skipTo(long position, long maxDistance) throws IOException {
+		if (source == null)
+			throw new FlIOException(FlIOException.INVALIDIOTYPE);
+
+		long bits = ((position - viewPosition) << 3) - bitPosition;
+		if (eof || bits < 0 || position - getStreamPosition() > maxDistance) {
+			seek(position);
+			return;
+		}
+
+		while (bits > 0) {
+			int n = (int) Math.min(bits, Integer.MAX_VALUE);
+			skipbits(n);
+			bits -= n;
+		}
+	}
+
+	private void setView(ByteBuffer buffer, long position) {
+		view = buffer;
+		limit = buffer.limit();
+		viewPosition = position;
+		bitPosition = 0;
+		cache = 0;
+		cacheBits = 0;
+	}
+
+	/**
+	 * Gets the view following the current view and those in
+	 * <code>following</code>.
+	 *
+	 * @return <code>false</code> at the end of the data
+	 */
+	private boolean fetchView() throws FlIOException {
+		if (lastView)
+			return false;
+
+		long position = viewPosition + limit;
+		for (int i = 0; i < following.size(); i++)
+			position += following.get(i).limit();
+
+		ByteBuffer buffer;
+		try {
+			buffer = source.getView(position);
+		} catch (IOException e) {
+			throw new FlIOException(FlIOException.SYSTEMIOFAILED, e.toString());
+		}
+		if (buffer == null || !buffer.hasRemaining()) {
+			lastView = true;
+			return false;
+		}
+		following.add(buffer.slice());
+		return true;
+	}
+
+	/**
+	 * Gets a byte at or after the end of the current view.
+	 *
+	 * @return the byte, or -1 at the end of the data
+	 */
+	private int byteAfterView(long index) throws FlIOException {
+		index -= limit;
+		for (int i = 0;; i++) {
+			if (i == following.size() && !fetchView())
+				return -1;
+			ByteBuffer buffer = following.get(i);
+			if (index < buffer.limit())
+				return buffer.get((int) index) & 0xFF;
+			index -= buffer.limit();
+		}
+	}
+
+	/**
+	 * Loads the cache with as many bits from the current position as one
+	 * long holds, or as remain before the end of the data.
+	 */
+	private void refill() throws FlIOException {
+		long index = bitPosition >>> 3;
+		int shift = (int) bitPosition & 7;
+
+		if (index + 8 <= limit) {
+			cache = view.getLong((int) index) << shift;
+			cacheBits = 64 - shift;
+			return;
+		}
+
+		// close to the end of the view: assemble the bytes one at a time
+		long value = 0;
+		int bytes = 0;
+		for (; bytes < 8; bytes++, index++) {
+			int b = (index < limit) ? (view.get((int) index) & 0xFF) : byteAfterView(index);
+			if (b < 0)
+				break;
+			value = (value << 8) | b;
+		}
+		cache = (value << (64 - (bytes << 3))) << shift;
+		cacheBits = Math.max(0, (bytes << 3) - shift);
+	}
+
+	/**
+	 * Peeks the next 32 bits. Unlike <code>nextbits(32)</code>, this does
+	 * not fail close to the end of the data: bits past the end read as 0.
+	 *
+	 * @return the next 32 bits
+	 */
+	public int showbits32() throws FlIOException {
+		if (cacheBits < 32)
+			refill();
+		return (int) (cache >>> 32);
+	}
+
+	/**
+	 * Peeks bits at an offset from the current position, bypassing the cache.
+	 */
+	private int peek(long offset, int n) throws FlIOException {
+		if (n > MAX_SIZE_OF_BITS || n < 1)
+			throw new FlIOException(FlIOException.INVALIDBITSIZE);
+
+		long position = bitPosition + offset;
+		long index = position >>> 3;
+		int shift = (int) position & 7;
+
+		if (index + 8 <= limit)
+			return (int) ((view.getLong((int) index) << shift) >>> (64 - n));
+
+		// close to the end of the view: assemble the bytes one at a time
+		int bytes = (shift + n + 7) >>> 3;
+		long value = 0;
+		for (int i = 0; i < bytes; i++, index++) {
+			int b = (index < limit) ? (view.get((int) index) & 0xFF) : byteAfterView(index);
+			if (b < 0) {
+				eof = true;
+				throw new FlIOException(FlIOException.ENDOFDATA);
+			}
+			value = (value << 8) | b;
+		}
+		return (int) ((value << (64 - (bytes << 3) + shift)) >>> (64 - n));
+	}
+
+	@Override
+	public int nextbits(int n) throws FlIOException {
+		if (n > cacheBits || n > MAX_SIZE_OF_BITS || n < 1) {
+			if (n > MAX_SIZE_OF_BITS || n < 1)
+				throw new FlIOException(FlIOException.INVALIDBITSIZE);
+			refill();
+			if (n > cacheBits) {
+				eof = true;
+				throw new FlIOException(FlIOException.ENDOFDATA);
+			}
+		}
+		return (int) (cache >>> (64 - n));
+	}
+
+	@Override
+	public int getbits(int n) throws FlIOException {
+		int x = nextbits(n);
+		skipbits(n);
+		return x;
+	}
+
+	@Override
+	public int sgetbits(int n) throws FlIOException {
+		int x = snextbits(n);
+		skipbits(n);
+		return x;
+	}
+
+	@Override
+	public void skipbits(int n) throws FlIOException {
+		bitPosition += n;
+		if (n < cacheBits) {
+			cache <<= n;
+			cacheBits -= n;
+		} else {
+			cache = 0;
+			cacheBits = 0;
+		}
+
+		while ((bitPosition >>> 3) >= limit) {
+			if (following.isEmpty() && !fetchView())
+				return; // past the end; the next read fails
+			bitPosition -= (long) limit << 3;
+			viewPosition += limit;
+			view = following.remove(0);
+			limit = view.limit();
+		}
+	}
+
+	@Override
+	public int align(int n) throws FlIOException {
+		if ((n % 8) != 0) // We only allow alignment on multiples of bytes
+			throw new FlIOException(FlIOException.INVALIDALIGNMENT);
+
+		int s = 0;
+
+		// align on next byte boundary
+		if ((getpos() % 8) != 0) {
+			s = (int) (getpos() % 8);
+			skipbits(8 - s);
+		}
+
+		// skip bits until the position is aligned on n
+		while ((getpos() % n) != 0) {
+			s += 8;
+			skipbits(8);
+		}
+
+		return s;
+	}
+
+	/**
+	 * @return byte position in the source of the byte holding the next bit
+	 */
+	public long getStreamPosition() {
+		return viewPosition + (bitPosition >>> 3);
+	}
+
+	/**
+	 * @return bits read since the start (or the last seek)
+	 */
+	@Override
+	public long getpos() {
+		return ((viewPosition - startPosition) << 3) + bitPosition;
+	}
+
+	@Override
+	public int getCurrentBit() {
+		return (int) bitPosition & 7;
+	}
+
+	@Override
+	public double nextdouble() throws FlIOException {
+		long l = ((long) peek(0, 32) << 32) | (peek(32, 32) & 0xFFFFFFFFL);
+		return Double.longBitsToDouble(l);
+	}
+
+	@Override
+	public int little_nextbits(int n) throws FlIOException {
+		return littlePeek(0, n);
+	}
+
+	@Override
+	public int little_getbits(int n) throws FlIOException {
+		int x = littlePeek(0, n);
+		skipbits(n);
+		return x;
+	}
+
+	@Override
+	public int little_sgetbits(int n) throws FlIOException {
+		int x = little_snextbits(n);
+		skipbits(n);
+		return x;
+	}
+
+	@Override
+	public double little_nextdouble() throws FlIOException {
+		long l = ((long) littlePeek(32, 32) << 32) | (littlePeek(0, 32) & 0xFFFFFFFFL);
+		return Double.longBitsToDouble(l);
+	}
+
+	private int littlePeek(long offset, int n) throws FlIOException {
+		if (n > MAX_SIZE_OF_BITS || n < 1)
+			throw new FlIOException(FlIOException.INVALIDBITSIZE);
+
+		int bytes = n >>> 3;
+		int x = 0;
+		int i = 0;
+		for (; i < bytes; i++)
+			x |= peek(offset + 8 * i, 8) << (8 * i);
+		if ((n % 8) > 0)
+			x |= peek(offset + 8 * i, n % 8) << (8 * i);
+		return x;
+	}
+
+	/**
+	 * Moves back to the start position.
+	 */
+	@Override
+	public void reset() throws FlIOException {
+		if (source == null) {
+			following.clear();
+			eof = false;
+			bitPosition = 0;
+			cache = 0;
+			cacheBits = 0;
+			return;
+		}
+		try {
+			seek(startPosition);
+		} catch (FlIOException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new FlIOException(FlIOException.SYSTEMIOFAILED, e.toString());
+		}
+	}
+
+	@Override
+	public void rebind(InputStream input) throws FlIOException {
+		throw new FlIOException(FlIOException.INVALIDIOTYPE);
+	}
+
+	@Override
+	public int putbits(int y, int n) throws FlIOException {
+		throw new FlIOException(FlIOException.INVALIDIOTYPE);
+	}
+
+	@Override
+	public int little_putbits(int y, int n) throws FlIOException {
+		throw new FlIOException(FlIOException.INVALIDIOTYPE);
+	}
+
+	@Override
+	public void flushbits() throws FlIOException {
+		throw new FlIOException(FlIOException.INVALIDIOTYPE);
+	}
+}
@@ -0,0 +1,103 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only memory mapping of a file of any size. A single
+ * <code>MappedByteBuffer</code> cannot exceed 2 GB, so the file is mapped in
+ * chunks as they are needed. Consecutive chunks overlap by 64 KB, which
+ * holds any MPEG-1 packet, so a packet never has to be split between two
+ * views.
+ */
+public class MappedFile {
+	private static final long CHUNK_SIZE = 1L << 30;
+	private static final long CHUNK_OVERLAP = 1L << 16;
+
+	private final FileChannel channel;
+	private final long size;
+	private final ByteBuffer chunks[];
+
+	/**
+	 * Maps a file.
+	 *
+	 * @param channel
+	 *            the channel of the file; it stays open for the life of the
+	 *            mapping
+	 */
+	public MappedFile(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.size = channel.size();
+		this.chunks = new ByteBuffer[(int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+	}
+
+	/**
+	 * @return the size of the file in bytes
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Gets a view from the given position to the end of the chunk that holds
+	 * it.
+	 *
+	 * @param position
+	 *            byte position in the file
+	 * @return a buffer whose remaining bytes start at <code>position</code>,
+	 *         or <code>null</code> at the end of the file
+	 */
+	public ByteBuffer getView(long position) throws IOException {
+		if (position < 0 || position >= size)
+			return null;
+
+		int chunk = (int) (position / CHUNK_SIZE);
+		ByteBuffer view = getChunk(chunk).duplicate();
+		((Buffer) view).position((int) (position - chunk * CHUNK_SIZE));
+		return view;
+	}
+
+	/**
+	 * Gets a view of a range of bytes that is at most 64 KB long.
+	 *
+	 * @param position
+	 *            byte position in the file of the first byte
+	 * @param lastByte
+	 *            byte position in the file of the last byte
+	 * @return a buffer whose remaining bytes are the range
+	 */
+	public ByteBuffer getView(long position, long lastByte) throws IOException {
+		if (position < 0 || lastByte >= size || lastByte - position >= CHUNK_OVERLAP)
+			throw new IndexOutOfBoundsException("Cannot map bytes " + position + " to " + lastByte + ".");
+
+		int chunk = (int) (position / CHUNK_SIZE);
+		long chunkStart = chunk * CHUNK_SIZE;
+		ByteBuffer view = getChunk(chunk).duplicate();
+		((Buffer) view).limit((int) (lastByte + 1 - chunkStart));
+		((Buffer) view).position((int) (position - chunkStart));
+		return view;
+	}
+
+	private synchronized ByteBuffer getChunk(int chunk) throws IOException {
+		if (chunks[chunk] == null) {
+			long start = chunk * CHUNK_SIZE;
+			long length = Math.min(CHUNK_SIZE + CHUNK_OVERLAP, size - start);
+			chunks[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		}
+		return chunks[chunk];
+	}
+}
@@ -0,0 +1,384 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cfar.lamp.mpeg1.video.SeekMode;
+import edu.umd.cfar.lamp.mpeg1.video.SkipPolicy;
+
+/**
+ * Plays a video stream in real time. A decoding thread reads forward
+ * through the stream, a bounded number of frames ahead of the clock, and
+ * queues the frames converted to RGB. The render thread calls
+ * {@link #getFrame()} whenever it draws, and gets the latest frame that is
+ * due, without waiting.
+ *
+ * Frames are dropped to keep up with the clock: B pictures and P pictures
+ * nothing is predicted from are skipped once they are late (see
+ * {@link SkipPolicy#DEADLINE}), other late pictures are decoded but not
+ * converted, and when a keyframe is already due decoding jumps to it, as
+ * nothing before it is needed any more. While the player is open, the
+ * stream must not be used by anything else.
+ *
+ * <pre>
+ * Mpeg1Player player = new Mpeg1Player(stream);
+ * player.play();
+ * // on each repaint
+ * Mpeg1Player.Frame frame = player.getFrame();
+ * if (frame != null)
+ * 	upload(frame.getPixels(), frame.getWidth(), frame.getHeight());
+ * // when done
+ * player.close();
+ * </pre>
+ */
+public class Mpeg1Player {
+	/**
+	 * A decoded frame, as handed to the render thread.
+	 */
+	public static class Frame {
+		private int frameNumber;
+		private final int pixels[];
+		private final int width;
+		private final int height;
+
+		Frame(int width, int height) {
+			this.width = width;
+			this.height = height;
+			this.pixels = new int[width * height];
+		}
+
+		/**
+		 * @return the (0-based) frame number
+		 */
+		public int getFrameNumber() {
+			return frameNumber;
+		}
+
+		/**
+		 * @return rgb values of the frame, row by row, as returned by
+		 *         {@link Mpeg1VideoStream#getRawPixels()}; reused once the
+		 *         next frame has been taken
+		 */
+		public int[] getPixels() {
+			return pixels;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+	}
+
+	/**
+	 * Where playback is: an immutable snapshot, replaced as a whole so that
+	 * both threads read it without locking.
+	 */
+	private static class Clock {
+		final boolean playing;
+		final long startTime; // System.nanoTime() when startFrame was due
+		final int startFrame;
+		final double nanosPerFrame;
+
+		Clock(boolean playing, long startTime, int startFrame, double nanosPerFrame) {
+			this.playing = playing;
+			this.startTime = startTime;
+			this.startFrame = startFrame;
+			this.nanosPerFrame = nanosPerFrame;
+		}
+
+		/**
+		 * @return the frame due at a time
+		 */
+		int frameAt(long time) {
+			if (!playing)
+				return startFrame;
+			return startFrame + (int) Math.floor((time - startTime) / nanosPerFrame);
+		}
+
+		/**
+		 * @return when a frame is due
+		 */
+		long dueTime(int frame) {
+			return startTime + (long) ((frame - startFrame) * nanosPerFrame);
+		}
+	}
+
+	private final Mpeg1VideoStream stream;
+	private final int numFrames;
+	private final int width;
+	private final int height;
+	private final double nanosPerFrame;
+
+	// frames decoded ahead; permits are the free places in the queue, and
+	// whoever removes a frame releases its place
+	private final Queue<Frame> ready = new ConcurrentLinkedQueue<Frame>();
+	private final Semaphore places;
+	// spare frames for the decoding thread
+	private final Queue<Frame> spare = new ConcurrentLinkedQueue<Frame>();
+	private Frame shown = null; // last frame returned by getFrame()
+
+	private volatile Clock clock;
+	private volatile Throwable failure = null;
+	private final AtomicInteger droppedFrames = new AtomicInteger();
+
+	private Thread decoder = null;
+	private volatile boolean decoding = false;
+	private volatile boolean decoded = false; // reached the end of the stream
+
+	/**
+	 * Prepares to play a stream from its first frame, paused, decoding up to
+	 * 8 frames ahead.
+	 */
+	public Mpeg1Player(Mpeg1VideoStream stream) throws IOException, MpegException {
+		this(stream, 8);
+	}
+
+	/**
+	 * Prepares to play a stream from its first frame, paused.
+	 *
+	 * @param stream
+	 *            the stream to play, at the scale it is set to
+	 * @param queueSize
+	 *            the most frames to decode ahead of the clock
+	 */
+	public Mpeg1Player(Mpeg1VideoStream stream, int queueSize) throws IOException, MpegException {
+		this.stream = stream;
+		this.numFrames = stream.getNumFrames();
+		this.width = stream.getScaledFrameWidth();
+		this.height = stream.getScaledFrameHeight();
+		this.places = new Semaphore(Math.max(1, queueSize));
+
+		float frameRate = stream.getFrameRate();
+		if (!(frameRate > 0))
+			frameRate = 25;
+		this.nanosPerFrame = 1e9 / frameRate;
+		this.clock = new Clock(false, 0, 0, nanosPerFrame);
+		start(0);
+	}
+
+	/**
+	 * Starts or resumes playback from the current frame.
+	 */
+	public synchronized void play() {
+		Clock c = clock;
+		if (!c.playing)
+			clock = new Clock(true, System.nanoTime(), c.startFrame, nanosPerFrame);
+	}
+
+	/**
+	 * Pauses playback at the current frame. Decoding goes on until the queue
+	 * is full.
+	 */
+	public synchronized void pause() {
+		Clock c = clock;
+		if (c.playing)
+			clock = new Clock(false, 0, getCurrentFrame(), nanosPerFrame);
+	}
+
+	public boolean isPlaying() {
+		return clock.playing;
+	}
+
+	/**
+	 * Moves playback to a frame, dropping the frames decoded ahead. Playback
+	 * goes on, or stays paused, from there.
+	 *
+	 * @param frame
+	 *            the frame to play from
+	 */
+	public synchronized void seek(int frame) {
+		if (frame < 0 || frame >= numFrames)
+			throw new IllegalArgumentException("No frame " + frame + " in " + numFrames + " frames.");
+
+		stop();
+		clock = new Clock(clock.playing, System.nanoTime(), frame, nanosPerFrame);
+		start(frame);
+	}
+
+	/**
+	 * @return the frame due now, by the clock
+	 */
+	public int getCurrentFrame() {
+		return Math.max(0, Math.min(numFrames - 1, clock.frameAt(System.nanoTime())));
+	}
+
+	/**
+	 * Takes the latest decoded frame that is due, dropping any earlier ones.
+	 * Meant to be called by the render thread whenever it draws; it never
+	 * waits for decoding. The frame returned before is reused once a new one
+	 * is taken.
+	 *
+	 * @return the frame to show, or <code>null</code> to go on showing the
+	 *         frame returned before
+	 * @throws IOException
+	 * @throws MpegException
+	 *             if decoding failed
+	 */
+	public Frame getFrame() throws IOException, MpegException {
+		int now = clock.frameAt(System.nanoTime());
+
+		Frame result = null;
+		for (Frame head = ready.peek(); head != null && head.frameNumber <= now; head = ready.peek()) {
+			head = ready.poll();
+			if (head == null)
+				break; // taken by seek()
+			places.release();
+			if (result != null) {
+				spare.offer(result);
+				droppedFrames.incrementAndGet();
+			}
+			result = head;
+		}
+
+		if (result == null) {
+			Throwable t = failure;
+			if (t instanceof IOException)
+				throw (IOException) t;
+			if (t instanceof MpegException)
+				throw (MpegException) t;
+			if (t instanceof RuntimeException)
+				throw (RuntimeException) t;
+			if (t instanceof Error)
+				throw (Error) t;
+			if (t != null)
+				throw new MpegException(t.toString());
+			return null;
+		}
+
+		if (shown != null)
+			spare.offer(shown);
+		shown = result;
+		return result;
+	}
+
+	/**
+	 * @return whether every frame up to the last one has been taken
+	 */
+	public boolean isFinished() {
+		return decoded && ready.isEmpty();
+	}
+
+	/**
+	 * @return the number of frames dropped so far, by the decoding thread or
+	 *         because a later frame was due when they were taken
+	 */
+	public int getDroppedFrames() {
+		return droppedFrames.get();
+	}
+
+	/**
+	 * Stops decoding and gives the stream back, with its skip policy reset.
+	 */
+	public synchronized void close() {
+		stop();
+		stream.setSkipPolicy(SkipPolicy.NONE);
+		stream.clearDeadline();
+	}
+
+	private void start(final int frame) {
+		decoding = true;
+		decoded = false;
+		decoder = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				decode(frame);
+			}
+		}, "Mpeg1Player");
+		decoder.setDaemon(true);
+		decoder.start();
+	}
+
+	/**
+	 * Stops the decoding thread, letting it finish the picture it is on, and
+	 * drops the frames it decoded.
+	 */
+	private void stop() {
+		decoding = false;
+		boolean interrupted = false;
+		while (decoder.isAlive()) {
+			try {
+				decoder.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+
+		for (Frame f = ready.poll(); f != null; f = ready.poll()) {
+			places.release();
+			spare.offer(f);
+		}
+	}
+
+	private void decode(int frame) {
+		try {
+			stream.setSkipPolicy(SkipPolicy.DEADLINE);
+			while (decoding && frame < numFrames) {
+				Clock c = clock;
+				long now = System.nanoTime();
+				if (c.playing) {
+					// behind, with a keyframe due already: skip to it
+					int due = c.frameAt(now);
+					if (due > frame) {
+						int target = stream.getVideoDecoder().findSeekTarget(Math.min(numFrames - 1, due), SeekMode.PREVIOUS_KEYFRAME);
+						if (target > frame) {
+							droppedFrames.addAndGet(target - frame);
+							frame = target;
+						}
+					}
+					stream.setDeadline(c.dueTime(frame));
+				} else {
+					stream.clearDeadline();
+				}
+
+				stream.seek(frame);
+				if (stream.isCurrentFrameSkipped() || (c.playing && c.frameAt(System.nanoTime()) > frame && frame < numFrames - 1)) {
+					// a later frame is due already
+					droppedFrames.incrementAndGet();
+				} else {
+					boolean acquired = false;
+					while (decoding && !(acquired = places.tryAcquire(10, TimeUnit.MILLISECONDS))) {
+						// the queue is full; wait for the render thread
+					}
+					if (!decoding) {
+						// stopped just as a place came free: give it back
+						if (acquired)
+							places.release();
+						break;
+					}
+
+					Frame f = spare.poll();
+					if (f == null)
+						f = new Frame(width, height);
+					stream.getRawPixels(f.pixels, 0, width);
+					f.frameNumber = frame;
+					ready.offer(f);
+				}
+				frame++;
+			}
+			decoded = (frame >= numFrames);
+		} catch (Throwable t) {
+			failure = t;
+		}
+	}
+}
@@ -41,7 +41,9 @@ import edu.umd.cfar.lamp.mpeg1.system.SystemStream;
 public class Mpeg1SystemStream extends InputStream {
 	private final File file ;
 	private final FileChannel channel;
-	private ByteBuffer buffer = null;
+	private final MappedFile mappedFile;
+	private ByteBuffer buffer = null; // view of the mapped file read() uses
+	private long bufferStart = 0; // file position of index 0 of buffer
 	private SystemIndex systemIndex = null;
 
 	private int currentStreamID = 0;
@@ -50,8 +52,7 @@ public class Mpeg1SystemStream extends InputStream {
 	public Mpeg1SystemStream(File file) throws IOException {
 		this.file = file;
 		this.channel = new RandomAccessFile(file, "r").getChannel();
-		long fsize = channel.size();
-		this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fsize);
+		this.mappedFile = new MappedFile(channel);
 	}
 
 	public Mpeg1SystemStream(File file, SystemIndex systemIndex)
@@ -180,12 +181,40 @@ public class Mpeg1SystemStream extends InputStream {
 		streamPointer = bytePosition;
 	}
 
+	/**
+	 * Gets a read-only view of the mapped file covering the contiguous run of
+	 * payload of the current stream that starts at the given position, up to
+	 * the end of its packet. The data is not copied.
+	 * 
+	 * @param bytePosition
+	 *            byte position in the elementary stream
+	 * @return the view, or <code>null</code> at the end of the stream
+	 */
+	public ByteBuffer getPayloadView(long bytePosition) throws IOException {
+		long position = 0;
+		long lastByte = -1;
+
+		try {
+			position = systemIndex.getPosition(currentStreamID, bytePosition);
+			lastByte = systemIndex.getLastByteInPacket(currentStreamID, bytePosition);
+		} catch (StreamNotFoundException snfe) {
+			throw new IOException(snfe.toString());
+		}
+
+		if (position == -1)
+			return null;
+
+		return mappedFile.getView(position, lastByte);
+	}
+
 	// === InputStream ==========================================================================
 	@Override
 	public int read() throws IOException {
 		try {
 			long to = systemIndex.getPosition(currentStreamID, streamPointer);
-			seekRafile(to);
+			if (to == -1)
+				return -1;
+			seekRafile(to, 1);
 			streamPointer++;
 			return readRafile();
 		} catch (StreamNotFoundException snfe) {
@@ -218,7 +247,7 @@ public class Mpeg1SystemStream extends InputStream {
 		if (bytesToRead > max)
 			bytesToRead = max;
 
-		seekRafile(position);
+		seekRafile(position, bytesToRead);
 		int result = readRafile(buffer, 0, bytesToRead);
 		if (result == -1)
 			return -1;
@@ -232,12 +261,23 @@ public class Mpeg1SystemStream extends InputStream {
 		channel.close();
 	}
 
-	private void seekRafile(long pos) throws IOException {
-		((Buffer) this.buffer).position((int) pos);
+	/**
+	 * Positions <code>buffer</code> at a file position, mapping another chunk
+	 * of the file if the next <code>length</code> bytes are not all in the
+	 * current one.
+	 */
+	private void seekRafile(long pos, int length) throws IOException {
+		if (buffer == null || pos < bufferStart || pos + length > bufferStart + buffer.limit()) {
+			buffer = mappedFile.getView(pos);
+			if (buffer == null)
+				throw new IOException("Position " + pos + " is past the end of " + file + ".");
+			bufferStart = pos - buffer.position();
+		}
+		((Buffer) this.buffer).position((int) (pos - bufferStart));
 	}
 
 	private int readRafile() throws IOException {
-		return this.buffer.get();
+		return this.buffer.get() & 0xFF;
 	}
 
 	private int readRafile(byte[] dst, int off, int len) throws IOException {
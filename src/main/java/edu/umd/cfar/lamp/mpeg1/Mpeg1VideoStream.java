@@ -23,9 +23,16 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 
+import edu.umd.cfar.lamp.mpeg1.video.FrameConsumer;
 import edu.umd.cfar.lamp.mpeg1.video.PelAspectRatio;
+import edu.umd.cfar.lamp.mpeg1.video.PixelFormat;
+import edu.umd.cfar.lamp.mpeg1.video.SeekCost;
+import edu.umd.cfar.lamp.mpeg1.video.SeekMode;
 import edu.umd.cfar.lamp.mpeg1.video.SequenceHeader;
+import edu.umd.cfar.lamp.mpeg1.video.SkipPolicy;
 import edu.umd.cfar.lamp.mpeg1.video.VideoDecoder;
 import edu.umd.cfar.lamp.mpeg1.video.VideoSource;
 
@@ -69,6 +76,30 @@ public class Mpeg1VideoStream {
 		videoDecoder.seek(frame);
 	}
 
+	public int seek(int frame, SeekMode mode) throws IOException, MpegException {
+		return videoDecoder.seek(frame, mode);
+	}
+
+	public boolean nextFrame() throws IOException, MpegException {
+		return videoDecoder.nextFrame();
+	}
+
+	public SeekCost estimateSeekCost(int frame) throws IOException, MpegException {
+		return videoDecoder.estimateSeekCost(frame);
+	}
+
+	public void setFrameCacheSize(long maxBytes) {
+		videoDecoder.setFrameCacheSize(maxBytes);
+	}
+
+	public long getFrameCacheSize() {
+		return videoDecoder.getFrameCacheSize();
+	}
+
+	public void setCheckpoints(int interval, long maxBytes) {
+		videoDecoder.setCheckpoints(interval, maxBytes);
+	}
+
 	public int getFrameWidth() throws IOException, MpegException {
 		return videoDecoder.getFrameWidth();
 	}
@@ -77,6 +108,50 @@ public class Mpeg1VideoStream {
 		return videoDecoder.getFrameHeight();
 	}
 
+	public void setPrefetch(int frames) throws IOException, MpegException {
+		videoDecoder.setPrefetch(frames);
+	}
+
+	public int getPrefetch() {
+		return videoDecoder.getPrefetch();
+	}
+
+	public void setSkipPolicy(SkipPolicy skipPolicy) {
+		videoDecoder.setSkipPolicy(skipPolicy);
+	}
+
+	public SkipPolicy getSkipPolicy() {
+		return videoDecoder.getSkipPolicy();
+	}
+
+	public void setDeadline(long deadline) {
+		videoDecoder.setDeadline(deadline);
+	}
+
+	public void clearDeadline() {
+		videoDecoder.clearDeadline();
+	}
+
+	public boolean isCurrentFrameSkipped() {
+		return videoDecoder.isCurrentFrameSkipped();
+	}
+
+	public void setScale(int scale) throws IOException, MpegException {
+		videoDecoder.setScale(scale);
+	}
+
+	public int getScale() {
+		return videoDecoder.getScale();
+	}
+
+	public int getScaledFrameWidth() throws IOException, MpegException {
+		return videoDecoder.getScaledFrameWidth();
+	}
+
+	public int getScaledFrameHeight() throws IOException, MpegException {
+		return videoDecoder.getScaledFrameHeight();
+	}
+
 	public int getBitRate() throws IOException, MpegException {
 		return videoDecoder.getBitRate();
 	}
@@ -97,6 +172,34 @@ public class Mpeg1VideoStream {
 		return videoDecoder.getNumFrames();
 	}
 
+	/**
+	 * Decodes frames <code>from</code> to <code>to - 1</code> on one thread
+	 * per processor, and hands them to a consumer in display order.
+	 * 
+	 * @see VideoDecoder#decodeRange(int, int, FrameConsumer, int, int)
+	 */
+	public void decodeRange(int from, int to, FrameConsumer consumer) throws IOException, MpegException {
+		videoDecoder.decodeRange(from, to, consumer);
+	}
+
+	public void decodeRange(int from, int to, FrameConsumer consumer, int threads, int bufferedFrames) throws IOException, MpegException {
+		videoDecoder.decodeRange(from, to, consumer, threads, bufferedFrames);
+	}
+
+	/**
+	 * Hands the DC images of all frames, 1/8 the width and height of the
+	 * frames, to a consumer in display order.
+	 * 
+	 * @see VideoDecoder#decodeDCImages(int, int, FrameConsumer, int, int)
+	 */
+	public void decodeDCImages(FrameConsumer consumer) throws IOException, MpegException {
+		videoDecoder.decodeDCImages(consumer);
+	}
+
+	public void decodeDCImages(int from, int to, FrameConsumer consumer, int threads, int bufferedFrames) throws IOException, MpegException {
+		videoDecoder.decodeDCImages(from, to, consumer, threads, bufferedFrames);
+	}
+
 	// Returns the byte position of the current frame.
 	public long getPosition() throws IOException, MpegException {
 		return videoDecoder.getPosition();
@@ -111,10 +214,42 @@ public class Mpeg1VideoStream {
 		return videoDecoder.getImage();
 	}
 
+	public BufferedImage getImage(BufferedImage image) throws IOException, MpegException {
+		return videoDecoder.getImage(image);
+	}
+
+	public BufferedImage getThumbnail(int width, int height) throws IOException, MpegException {
+		return videoDecoder.getThumbnail(width, height);
+	}
+
+	public BufferedImage[] getThumbnails(int count, int width, int height) throws IOException, MpegException {
+		return videoDecoder.getThumbnails(count, width, height);
+	}
+
+	public BufferedImage[] getThumbnails(int frames[], int width, int height, int threads) throws IOException, MpegException {
+		return videoDecoder.getThumbnails(frames, width, height, threads);
+	}
+
+	public int[] getKeyframes() throws IOException, MpegException {
+		return videoDecoder.getKeyframes();
+	}
+
 	public int[] getRawPixels() throws IOException, MpegException {
 		return videoDecoder.getRawPixels();
 	}
 
+	public void getRawPixels(int pixels[], int offset, int scanline) throws IOException, MpegException {
+		videoDecoder.getRawPixels(pixels, offset, scanline);
+	}
+
+	public void getRawPixels(IntBuffer buffer) throws IOException, MpegException {
+		videoDecoder.getRawPixels(buffer);
+	}
+
+	public void getPixels(ByteBuffer buffer, PixelFormat format) throws IOException, MpegException {
+		videoDecoder.getPixels(buffer, format);
+	}
+
 	/**
 	 * Gets the video decoder for this stream.
 	 * 
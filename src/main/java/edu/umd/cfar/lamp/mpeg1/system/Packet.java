@@ -126,7 +126,7 @@ public class Packet implements Indexable {
 			systemIndex.addPacket(stream_id, startPos, N);
 		} catch (FlIOException e) {
 			if (e.getMessage().equals("End of Data"))
-				systemIndex.addPacket(stream_id, startPos, bitstream.getpos() / 8);
+				systemIndex.addPacket(stream_id, startPos, (int) (bitstream.getpos() / 8 - startPos));
 			else
 				throw e;
 		}
@@ -17,7 +17,6 @@ import java.util.Arrays;
 
 import edu.columbia.ee.flavor.Bitstream;
 import edu.umd.cfar.lamp.mpeg1.MpegException;
-import edu.umd.cfar.lamp.mpeg1.ParsingException;
 
 class Block implements Decodable {
 	private static final int scan[][] = { { 0, 1, 5, 6, 14, 15, 27, 28 },
@@ -29,19 +28,6 @@ class Block implements Decodable {
 			{ 21, 34, 37, 47, 50, 56, 59, 61 },
 			{ 35, 36, 48, 49, 57, 58, 62, 63 } };
 
-	// precalculated cosine matrix for inverse DCT
-	private static final double c[][] = { { 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373 },
-			{ 0.49039264020161520, 0.41573480615127260, 0.27778511650980114, 0.09754516100806417, -0.09754516100806410, -0.27778511650980100, -0.41573480615127270, -0.49039264020161520 },
-			{ 0.46193976625564337, 0.19134171618254492, -0.19134171618254486, -0.46193976625564337, -0.46193976625564340, -0.19134171618254517, 0.19134171618254500, 0.46193976625564326 },
-			{ 0.41573480615127260, -0.09754516100806410, -0.49039264020161520, -0.27778511650980110, 0.27778511650980090, 0.49039264020161520, 0.09754516100806439, -0.41573480615127256 },
-			{ 0.35355339059327380, -0.35355339059327373, -0.35355339059327384, 0.35355339059327370, 0.35355339059327384, -0.35355339059327334, -0.35355339059327356, 0.35355339059327330 },
-			{ 0.27778511650980114, -0.49039264020161520, 0.09754516100806415, 0.41573480615127280, -0.41573480615127256, -0.09754516100806401, 0.49039264020161530, -0.27778511650980076 },
-			{ 0.19134171618254492, -0.46193976625564340, 0.46193976625564326, -0.19134171618254495, -0.19134171618254528, 0.46193976625564337, -0.46193976625564320, 0.19134171618254478 },
-			{ 0.09754516100806417, -0.27778511650980110, 0.41573480615127280, -0.49039264020161530, 0.49039264020161520, -0.41573480615127250, 0.27778511650980076, -0.09754516100806429 } };
-
-	// temporary matrix for inverse DCT
-	private double temp[][] = new double[8][8];
-
 	// matrices for decoding DCT coefficients
 	private int dct_zz[] = new int[8 * 8];
 	private int dct_recon[][] = new int[8][8];
@@ -59,9 +45,14 @@ class Block implements Decodable {
 	// temporary object for holding parsed "level" and "run": used in place of the spec's dct_coeff_first and dct_coeff_next
 	private DCTCoefficientValues dct_coeff = new DCTCoefficientValues();
 
+	private InverseDCT idct = new InverseDCT();
+
 	// optimization: skip inverseDCT if all reconstructed DCT coefficients are 0
 	private boolean skipIDCT = true;
 
+	// optimization: all non-zero reconstructed DCT coefficients lie in the top left extent x extent square
+	private int extent = 0;
+
 	@Override
 	public void parse(Bitstream bitstream, ParserState parserState) throws IOException {
 		int blockNum = parserState.getBlockNumber();
@@ -88,41 +79,21 @@ class Block implements Decodable {
 				}
 			} else // not a Block in an intra-coded Macroblock
 			{
-				if (bitstream.nextbits(6) == 1) // VLC escape code
-				{
-					if (bitstream.getbits(6) != 1)
-						throw new ParsingException("Expected constant 000001 not found.");
-
-					// here, dct_coeff is used to mean the spec's dct_coeff_first
-					dct_coeff.setRun(bitstream.getbits(6));
+				dctFirst.parse(bitstream);
+				if (dctFirst.isEscape()) {
+					bitstream.skipbits(6); // run
 					escLevel.parse(bitstream);
-					dct_coeff.setLevel(escLevel.getValue());
-				} else {
-					dctFirst.parse(bitstream);
-					// dct_coeff is still dct_coeff_first here
-					dct_coeff = dctFirst.getValue();
 				}
 			}
 
 			if (parserState.getPictureCodingType() != PictureCodingTypes.TYPE_D) {
-				while (bitstream.nextbits(2) != 2) {
-					if (bitstream.nextbits(6) == 1) // VLC escape code
-					{
-						if (bitstream.getbits(6) != 1)
-							throw new ParsingException("Expected constant 000001 not found.");
-
-						// from here on, dct_coeff is used to mean the spec's dct_coeff_next
-						dct_coeff.setRun(bitstream.getbits(6));
+				// a single lookup covers run/level pairs, escape and end_of_block
+				for (dctNext.parse(bitstream); !dctNext.isEndOfBlock(); dctNext.parse(bitstream)) {
+					if (dctNext.isEscape()) {
+						bitstream.skipbits(6); // run
 						escLevel.parse(bitstream);
-						dct_coeff.setLevel(escLevel.getValue());
-					} else {
-						dctNext.parse(bitstream);
-						dct_coeff = dctNext.getValue();
 					}
 				}
-
-				if (bitstream.getbits(2) != 2)
-					throw new ParsingException("Expected end_of_block not found.");
 			}
 		}
 	}
@@ -160,6 +131,7 @@ class Block implements Decodable {
 
 		// set to true here, and if any non-zero values are discovered, set to false
 		skipIDCT = true;
+		extent = 0;
 
 		if (decoderState.getPatternCode(blockNum)) {
 			// parse
@@ -197,15 +169,12 @@ class Block implements Decodable {
 				dct_coeff_i = 0;
 			} else // not a Block in an intra-coded Macroblock
 			{
-				if (bitstream.nextbits(6) == 1) // VLC escape code
-				{
-					bitstream.skipbits(6);
+				dctFirst.parse(bitstream);
+				dct_coeff = dctFirst.getValue();
+				if (dctFirst.isEscape()) {
 					dct_coeff.setRun(bitstream.getbits(6));
 					escLevel.parse(bitstream);
 					dct_coeff.setLevel(escLevel.getValue());
-				} else {
-					dctFirst.parse(bitstream);
-					dct_coeff = dctFirst.getValue();
 				}
 
 				dct_coeff_i = dct_coeff.getRun();
@@ -213,35 +182,31 @@ class Block implements Decodable {
 			}
 
 			if (decoderState.getPictureCodingType() != PictureCodingTypes.TYPE_D) {
-				while (bitstream.nextbits(2) != 2) {
-					if (bitstream.nextbits(6) == 1) // VLC escape code
-					{
-						bitstream.skipbits(6);
+				// a single lookup covers run/level pairs, escape and end_of_block
+				for (dctNext.parse(bitstream); !dctNext.isEndOfBlock(); dctNext.parse(bitstream)) {
+					dct_coeff = dctNext.getValue();
+					if (dctNext.isEscape()) {
 						dct_coeff.setRun(bitstream.getbits(6));
 						escLevel.parse(bitstream);
 						dct_coeff.setLevel(escLevel.getValue());
-					} else {
-						dctNext.parse(bitstream);
-						dct_coeff = dctNext.getValue();
 					}
 
 					dct_coeff_i += dct_coeff.getRun() + 1;
 					dct_zz[dct_coeff_i] = dct_coeff.getLevel(); // negatives are handled in the VLC lookup
 				}
-
-				if (bitstream.getbits(2) != 2)
-					throw new ParsingException("Expected end_of_block not found.");
 			}
 
-			// inverse quantize (fills in dct_recon[][] with DCT coefficients)
+			// inverse quantize (fills in dct_recon[][] with DCT coefficients);
+			// at reduced resolution only the coefficients transformed are
 			int quantizer_scale = decoderState.getQuantizerScale();
+			int size = 8 >> decoderState.getScaleShift();
 
 			if (macroblock_intra) {
 				int intra_quant[][] = decoderState.getIntraQuantizerMatrix();
 				int past_intra_address = decoderState.getPastIntraAddress();
 
-				for (int m = 0; m < 8; m++) {
-					for (int n = 0; n < 8; n++) {
+				for (int m = 0; m < size; m++) {
+					for (int n = 0; n < size; n++) {
 						int idx = scan[m][n];
 						int scratch = (dct_zz[idx] * quantizer_scale * intra_quant[m][n]) / 8;
 						if ((scratch & 1) == 0)
@@ -252,8 +217,10 @@ class Block implements Decodable {
 							scratch = -2048;
 						dct_recon[m][n] = scratch;
 
-						if (scratch != 0)
+						if (scratch != 0) {
 							skipIDCT = false;
+							extent = Math.max(extent, Math.max(m, n) + 1);
+						}
 					}
 				}
 
@@ -293,8 +260,8 @@ class Block implements Decodable {
 			{
 				int non_intra_quant[][] = decoderState.getNonIntraQuantizerMatrix();
 
-				for (int m = 0; m < 8; m++) {
-					for (int n = 0; n < 8; n++) {
+				for (int m = 0; m < size; m++) {
+					for (int n = 0; n < size; n++) {
 						int idx = scan[m][n];
 						int scratch = (((2 * dct_zz[idx]) + sign(dct_zz[idx])) * quantizer_scale * non_intra_quant[m][n]) / 16;
 						if ((scratch & 1) == 0)
@@ -307,8 +274,10 @@ class Block implements Decodable {
 							scratch = 0;
 						dct_recon[m][n] = scratch;
 
-						if (scratch != 0)
+						if (scratch != 0) {
 							skipIDCT = false;
+							extent = Math.max(extent, Math.max(m, n) + 1);
+						}
 					}
 				}
 			}
@@ -333,8 +302,13 @@ class Block implements Decodable {
 			}
 		}
 
-		if (!skipIDCT)
-			inverseDCT();
+		if (!skipIDCT) {
+			int shift = decoderState.getScaleShift();
+			if (shift > 0)
+				scaledInverseDCT(shift);
+			else
+				inverseDCT(decoderState.getReferenceIDCT());
+		}
 
 		draw(decoderState, blockNum, pel_row, pel_col);
 	}
@@ -344,33 +318,6 @@ class Block implements Decodable {
 		return (value > 0) ? 1 : (value < 0) ? -1 : 0;
 	}
 
-	// According to spec page 11
-	private int doubleSlash(int left, int right) {
-		assert right == 2 || right == 4;
-		int myresult;
-		if (right == 2) {
-			if (left < 0) {
-				myresult = -((-(left + 1)) >> 1);
-			} else {
-				myresult = (left + 1) >> 1;
-			}
-		} else if (right == 4) {
-			if (left < 0) {
-				myresult = -((-(left + 2)) >> 2);
-			} else {
-				myresult = (left + 2) >> 2;
-			}
-		} else {
-			float fresult = (float) left / (float) right;
-			myresult = left / right;
-			if (Math.abs(fresult - myresult) >= 0.5f) {
-				myresult += (myresult >= 0) ? 1 : -1;
-			}
-		}
-
-		return myresult;
-	}
-
 	public void motionCompensateBPicture(DecoderState decoderState, int blockNum, int pel_row, int pel_col) throws IOException, MpegException {
 		if (decoderState.getMacroblockMotionForward()) {
 			getPelsFromPast(decoderState, blockNum, pel_row, pel_col);
@@ -383,274 +330,52 @@ class Block implements Decodable {
 	}
 
 	private void getPelsFromPast(DecoderState decoderState, int blockNum, int pel_row, int pel_col) throws IOException, MpegException {
-		int recon_right_for = decoderState.getReconRightFor();
-		int recon_down_for = decoderState.getReconDownFor();
-
-		int right_for = 0;
-		int down_for = 0;
-		boolean right_half_for = false;
-		boolean down_half_for = false;
-		int twoIplusTwoDownForPlusPelRow = 0;
-		int twoJplusTwoRightForPlusPelCol = 0;
-
-		switch (blockNum) {
-			case 0: // all luminance blocks use the same formula
-			case 1:
-			case 2:
-			case 3:
-				right_for = recon_right_for >> 1;
-				down_for = recon_down_for >> 1;
-				right_half_for = ((recon_right_for - (2 * right_for)) != 0);
-				down_half_for = ((recon_down_for - (2 * down_for)) != 0);
-
-				for (int i = 0; i < 8; i++) {
-					for (int j = 0; j < 8; j++) {
-						if (!right_half_for) {
-							if (!down_half_for)
-								pel[i][j] = decoderState.getPastY(pel_row + i + down_for, pel_col + j + right_for);
-							else
-								pel[i][j] = doubleSlash(
-										decoderState.getPastY(pel_row + i + down_for, pel_col + j + right_for)
-												+ decoderState.getPastY(pel_row + i + down_for + 1, pel_col + j + right_for),
-										2);
-						} else // right_half_for is true
-						{
-							if (!down_half_for)
-								pel[i][j] = doubleSlash(
-										decoderState.getPastY(pel_row + i + down_for, pel_col + j + right_for)
-												+ decoderState.getPastY(pel_row + i + down_for, pel_col + j + right_for + 1),
-										2);
-							else
-								pel[i][j] = doubleSlash(
-										decoderState.getPastY(pel_row + i + down_for, pel_col + j + right_for)
-												+ decoderState.getPastY(pel_row + i + down_for + 1, pel_col + j + right_for)
-												+ decoderState.getPastY(pel_row + i + down_for, pel_col + j + right_for + 1)
-												+ decoderState.getPastY(pel_row + i + down_for + 1, pel_col + j + right_for + 1),
-										4);
-						}
-					}
-				}
-				break;
-			case 4:
-				right_for = (recon_right_for / 2) >> 1;
-				down_for = (recon_down_for / 2) >> 1;
-				right_half_for = ((recon_right_for / 2 - (2 * right_for)) != 0);
-				down_half_for = ((recon_down_for / 2 - (2 * down_for)) != 0);
-
-				for (int i = 0; i < 8; i++) {
-					twoIplusTwoDownForPlusPelRow = 2 * (i + down_for) + pel_row;
-					for (int j = 0; j < 8; j++) {
-						twoJplusTwoRightForPlusPelCol = 2 * (j + right_for) + pel_col;
-						if (!right_half_for) {
-							if (!down_half_for)
-								pel[i][j] = decoderState.getPastCb(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol);
-							else
-								pel[i][j] = doubleSlash(
-										decoderState.getPastCb(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCb(twoIplusTwoDownForPlusPelRow + 2, twoJplusTwoRightForPlusPelCol),
-										2);
-						} else // right_half_for is true
-						{
-							if (!down_half_for)
-								pel[i][j] = doubleSlash(
-										decoderState.getPastCb(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCb(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol + 2),
-										2);
-							else
-								pel[i][j] = doubleSlash(
-										decoderState.getPastCb(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCb(twoIplusTwoDownForPlusPelRow + 2, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCb(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol + 2)
-												+ decoderState.getPastCb(twoIplusTwoDownForPlusPelRow + 2, twoJplusTwoRightForPlusPelCol + 2),
-										4);
-						}
-					}
-				}
-				break;
-			case 5:
-				right_for = (recon_right_for / 2) >> 1;
-				down_for = (recon_down_for / 2) >> 1;
-				right_half_for = ((recon_right_for / 2 - (2 * right_for)) != 0);
-				down_half_for = ((recon_down_for / 2 - (2 * down_for)) != 0);
-
-				for (int i = 0; i < 8; i++) {
-					twoIplusTwoDownForPlusPelRow = 2 * (i + down_for) + pel_row;
-					for (int j = 0; j < 8; j++) {
-						twoJplusTwoRightForPlusPelCol = 2 * (j + right_for) + pel_col;
-						if (!right_half_for) {
-							if (!down_half_for)
-								pel[i][j] = decoderState.getPastCr(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol);
-							else
-								pel[i][j] = doubleSlash(
-										decoderState.getPastCr(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCr(twoIplusTwoDownForPlusPelRow + 2, twoJplusTwoRightForPlusPelCol),
-										2);
-						} else // right_half_for is true
-						{
-							if (!down_half_for)
-								pel[i][j] = doubleSlash(
-										decoderState.getPastCr(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCr(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol + 2),
-										2);
-							else
-								pel[i][j] = doubleSlash(
-										decoderState.getPastCr(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCr(twoIplusTwoDownForPlusPelRow + 2, twoJplusTwoRightForPlusPelCol)
-												+ decoderState.getPastCr(twoIplusTwoDownForPlusPelRow, twoJplusTwoRightForPlusPelCol + 2)
-												+ decoderState.getPastCr(twoIplusTwoDownForPlusPelRow + 2, twoJplusTwoRightForPlusPelCol + 2),
-										4);
-						}
-					}
-				}
-				break;
-		}
+		predict(decoderState.getPastFrameBuffer(), decoderState.getReconRightFor(), decoderState.getReconDownFor(), blockNum, pel_row, pel_col, false);
 	}
 
 	private void getPelsFromFuture(DecoderState decoderState, int blockNum, int pel_row, int pel_col, boolean averageWithExisting) throws IOException, MpegException {
-		int recon_right_back = decoderState.getReconRightBack();
-		int recon_down_back = decoderState.getReconDownBack();
+		predict(decoderState.getFutureFrameBuffer(), decoderState.getReconRightBack(), decoderState.getReconDownBack(), blockNum, pel_row, pel_col, averageWithExisting);
+	}
 
-		int right_back = 0;
-		int down_back = 0;
-		boolean right_half_back = false;
-		boolean down_half_back = false;
-		int twoIplusTwoDownBackPlusPelRow = 0;
-		int twoJplusTwoRightBackPlusPelCol = 0;
-		int result = 0;
+	private void predict(FrameBuffer reference, int recon_right, int recon_down, int blockNum, int pel_row, int pel_col, boolean averageWithExisting) {
+		int shift = reference.getScaleShift();
+		if (shift > 0) {
+			// the vectors are scaled down with the frame, truncating toward
+			// zero as the spec does for chrominance
+			int scale = 1 << shift;
+			int size = 8 >> shift;
+			if (blockNum < 4)
+				MotionCompensation.predictScaled(reference.getY(), reference.getWidth(), recon_right / scale, recon_down / scale, pel_row >> shift, pel_col >> shift, size, pel, averageWithExisting);
+			else
+				MotionCompensation.predictScaled((blockNum == 4) ? reference.getCb() : reference.getCr(), reference.getChromaWidth(), (recon_right / 2) / scale, (recon_down / 2) / scale, (pel_row >> 1) >> shift, (pel_col >> 1) >> shift, size, pel, averageWithExisting);
+			return;
+		}
 
 		switch (blockNum) {
 			case 0: // all luminance blocks use the same formula
 			case 1:
 			case 2:
 			case 3:
-				right_back = recon_right_back >> 1;
-				down_back = recon_down_back >> 1;
-				right_half_back = ((recon_right_back - (2 * right_back)) != 0);
-				down_half_back = ((recon_down_back - (2 * down_back)) != 0);
-
-				for (int i = 0; i < 8; i++) {
-					for (int j = 0; j < 8; j++) {
-						if (!right_half_back) {
-							if (!down_half_back)
-								result = decoderState.getFutureY(pel_row + i + down_back, pel_col + j + right_back);
-							else
-								result = doubleSlash(
-										decoderState.getFutureY(pel_row + i + down_back, pel_col + j + right_back)
-												+ decoderState.getFutureY(pel_row + i + down_back + 1, pel_col + j + right_back),
-										2);
-						} else // right_half_back is true
-						{
-							if (!down_half_back)
-								result = doubleSlash(
-										decoderState.getFutureY(pel_row + i + down_back, pel_col + j + right_back)
-												+ decoderState.getFutureY(pel_row + i + down_back, pel_col + j + right_back + 1),
-										2);
-							else
-								result = doubleSlash(
-										decoderState.getFutureY(pel_row + i + down_back, pel_col + j + right_back)
-												+ decoderState.getFutureY(pel_row + i + down_back + 1, pel_col + j + right_back)
-												+ decoderState.getFutureY(pel_row + i + down_back, pel_col + j + right_back + 1)
-												+ decoderState.getFutureY(pel_row + i + down_back + 1, pel_col + j + right_back + 1),
-										4);
-						}
-
-						if (averageWithExisting)
-							pel[i][j] = doubleSlash(result + pel[i][j], 2);
-						else
-							pel[i][j] = result;
-					}
-				}
+				MotionCompensation.predictLuminance(reference, recon_right, recon_down, pel_row, pel_col, pel, averageWithExisting);
 				break;
 			case 4:
-				right_back = (recon_right_back / 2) >> 1;
-				down_back = (recon_down_back / 2) >> 1;
-				right_half_back = ((recon_right_back / 2 - (2 * right_back)) != 0);
-				down_half_back = ((recon_down_back / 2 - (2 * down_back)) != 0);
-
-				for (int i = 0; i < 8; i++) {
-					twoIplusTwoDownBackPlusPelRow = 2 * (i + down_back) + pel_row;
-					for (int j = 0; j < 8; j++) {
-						twoJplusTwoRightBackPlusPelCol = 2 * (j + right_back) + pel_col;
-						if (!right_half_back) {
-							if (!down_half_back)
-								result = decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol);
-							else
-								result = doubleSlash(
-										decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow + 2, twoJplusTwoRightBackPlusPelCol),
-										2);
-						} else // right_half_back is true
-						{
-							if (!down_half_back)
-								result = doubleSlash(
-										decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol + 2),
-										2);
-							else
-								result = doubleSlash(
-										decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow + 2, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol + 2)
-												+ decoderState.getFutureCb(twoIplusTwoDownBackPlusPelRow + 2, twoJplusTwoRightBackPlusPelCol + 2),
-										4);
-						}
-
-						if (averageWithExisting)
-							pel[i][j] = doubleSlash(result + pel[i][j], 2);
-						else
-							pel[i][j] = result;
-					}
-				}
+				MotionCompensation.predictChrominance(reference, reference.getCb(), recon_right, recon_down, pel_row >> 1, pel_col >> 1, pel, averageWithExisting);
 				break;
 			case 5:
-				right_back = (recon_right_back / 2) >> 1;
-				down_back = (recon_down_back / 2) >> 1;
-				right_half_back = ((recon_right_back / 2 - (2 * right_back)) != 0);
-				down_half_back = ((recon_down_back / 2 - (2 * down_back)) != 0);
-
-				for (int i = 0; i < 8; i++) {
-					twoIplusTwoDownBackPlusPelRow = 2 * (i + down_back) + pel_row;
-					for (int j = 0; j < 8; j++) {
-						twoJplusTwoRightBackPlusPelCol = 2 * (j + right_back) + pel_col;
-						if (!right_half_back) {
-							if (!down_half_back)
-								result = decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol);
-							else
-								result = doubleSlash(
-										decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow + 2, twoJplusTwoRightBackPlusPelCol),
-										2);
-						} else // right_half_back is true
-						{
-							if (!down_half_back)
-								result = doubleSlash(
-										decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol + 2),
-										2);
-							else
-								result = doubleSlash(
-										decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow + 2, twoJplusTwoRightBackPlusPelCol)
-												+ decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow, twoJplusTwoRightBackPlusPelCol + 2)
-												+ decoderState.getFutureCr(twoIplusTwoDownBackPlusPelRow + 2, twoJplusTwoRightBackPlusPelCol + 2),
-										4);
-						}
-
-						if (averageWithExisting)
-							pel[i][j] = doubleSlash(result + pel[i][j], 2);
-						else
-							pel[i][j] = result;
-
-					}
-				}
+				MotionCompensation.predictChrominance(reference, reference.getCr(), recon_right, recon_down, pel_row >> 1, pel_col >> 1, pel, averageWithExisting);
 				break;
 		}
 	}
 
 	public void draw(DecoderState decoderState, int blockNum, int pel_row, int pel_col) throws IOException, MpegException {
-		for (int i = 0; i < 8; i++) {
-			for (int j = 0; j < 8; j++) {
-				int a, b, c, d;
+		// at reduced resolution only the top left of pel[][] is used
+		int shift = decoderState.getScaleShift();
+		int size = 8 >> shift;
+		pel_row >>= shift;
+		pel_col >>= shift;
+
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
 				int result = pel[i][j];
 				switch (blockNum) {
 					case 0:
@@ -659,25 +384,11 @@ class Block implements Decodable {
 					case 3:
 						decoderState.setCurrentY(i + pel_row, j + pel_col, result);
 						break;
-					case 4: // blocks 4 (Cb) and 5 (Cr) need to be upsampled to 4x4 block size
-						a = 2 * i + pel_row;
-						b = a + 1;
-						c = 2 * j + pel_col;
-						d = c + 1;
-						decoderState.setCurrentCb(a, c, result);
-						decoderState.setCurrentCb(a, d, result);
-						decoderState.setCurrentCb(b, c, result);
-						decoderState.setCurrentCb(b, d, result);
+					case 4: // blocks 4 (Cb) and 5 (Cr) are stored at chroma resolution
+						decoderState.setCurrentCb(i + (pel_row >> 1), j + (pel_col >> 1), result);
 						break;
 					case 5:
-						a = 2 * i + pel_row;
-						b = a + 1;
-						c = 2 * j + pel_col;
-						d = c + 1;
-						decoderState.setCurrentCr(a, c, result);
-						decoderState.setCurrentCr(a, d, result);
-						decoderState.setCurrentCr(b, c, result);
-						decoderState.setCurrentCr(b, d, result);
+						decoderState.setCurrentCr(i + (pel_row >> 1), j + (pel_col >> 1), result);
 						break;
 				}
 			}
@@ -685,29 +396,32 @@ class Block implements Decodable {
 	}
 
 	// inverse DCT (converts DCT coefficients to actual pel values)
-	private void inverseDCT() {
-		// inverse DCT implementation modified from one cribbed from Stephen Manley (http://www.nyx.net/~smanley/)
-		double temp1;
+	private void inverseDCT(boolean reference) {
+		if (reference)
+			idct.referenceTransform(dct_recon);
+		else if (extent <= 1)
+			idct.transformDC(dct_recon);
+		else if (extent <= 4)
+			idct.transform4x4(dct_recon);
+		else
+			idct.transform(dct_recon);
 
 		for (int i = 0; i < 8; i++) {
 			for (int j = 0; j < 8; j++) {
-				temp[i][j] = 0.0;
-
-				for (int k = 0; k < 8; k++) {
-					temp[i][j] += dct_recon[i][k] * c[k][j];
-				}
+				pel[i][j] = VideoDecoder.clamp(pel[i][j] + dct_recon[i][j]);
 			}
 		}
+	}
 
-		for (int i = 0; i < 8; i++) {
-			for (int j = 0; j < 8; j++) {
-				temp1 = 0.0;
-
-				for (int k = 0; k < 8; k++) {
-					temp1 += c[k][i] * temp[k][j];
-				}
+	// inverse DCT of the low frequencies only, for decoding at reduced
+	// resolution; the pel differences fill the top left of dct_recon[][]
+	private void scaledInverseDCT(int shift) {
+		idct.transformScaled(dct_recon, shift);
 
-				pel[i][j] = VideoDecoder.clamp(pel[i][j] + (int) Math.round(temp1));
+		int size = 8 >> shift;
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				pel[i][j] = VideoDecoder.clamp(pel[i][j] + dct_recon[i][j]);
 			}
 		}
 	}
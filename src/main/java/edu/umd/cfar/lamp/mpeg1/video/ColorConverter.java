@@ -0,0 +1,202 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+/**
+ * Converts decoded YCbCr frames to packed RGB, a row at a time, with
+ * integer arithmetic only. The contribution of each sample value to each
+ * channel is looked up in a table of 16.16 fixed point values, and the
+ * sum is saturated to 0..255 with a second table. The results are within
+ * 1 of the ITU-R BT.601 floating point conversion used before.
+ */
+final class ColorConverter {
+	private static final int SHIFT = 16;
+
+	// sums range from about -250 to 510; the clamp table is indexed from -384
+	private static final int CLAMP_OFFSET = 384;
+	private static final int CLAMP[] = new int[1024];
+
+	// Y contributions include the offset into the clamp table
+	private static final int Y_TABLE[] = new int[256];
+	private static final int CR_RED[] = new int[256];
+	private static final int CB_GREEN[] = new int[256];
+	private static final int CR_GREEN[] = new int[256];
+	private static final int CB_BLUE[] = new int[256];
+
+	static {
+		double one = 1 << SHIFT;
+		for (int i = 0; i < 256; i++) {
+			Y_TABLE[i] = (int) Math.round((1.164 * (i - 16) + CLAMP_OFFSET) * one);
+			CR_RED[i] = (int) Math.round(1.402 * (i - 128) * one);
+			CB_GREEN[i] = (int) Math.round(-0.34414 * (i - 128) * one);
+			CR_GREEN[i] = (int) Math.round(-0.71414 * (i - 128) * one);
+			CB_BLUE[i] = (int) Math.round(1.772 * (i - 128) * one);
+		}
+		for (int i = 0; i < CLAMP.length; i++)
+			CLAMP[i] = VideoDecoder.clamp(i - CLAMP_OFFSET);
+	}
+
+	private ColorConverter() {
+	}
+
+	/**
+	 * Converts the visible part of a frame.
+	 *
+	 * @param frame
+	 *            the planar YCbCr frame
+	 * @param width
+	 *            number of pels to convert in each row
+	 * @param height
+	 *            number of rows to convert
+	 * @param rgb
+	 *            receives the packed pixels, with an alpha of 255
+	 * @param offset
+	 *            index in <code>rgb</code> of the top left pixel
+	 * @param scanline
+	 *            distance in <code>rgb</code> between the starts of rows
+	 */
+	public static void convert(FrameBuffer frame, int width, int height, int rgb[], int offset, int scanline) {
+		for (int row = 0; row < height; row++) {
+			convertRow(frame, row, width, rgb, offset + row * scanline);
+		}
+	}
+
+	/**
+	 * Converts the start of one row of a frame.
+	 *
+	 * @param frame
+	 *            the planar YCbCr frame
+	 * @param row
+	 *            the row
+	 * @param width
+	 *            number of pels to convert
+	 * @param rgb
+	 *            receives the packed pixels, with an alpha of 255
+	 * @param rgbPos
+	 *            index in <code>rgb</code> of the first pixel
+	 */
+	public static void convertRow(FrameBuffer frame, int row, int width, int rgb[], int rgbPos) {
+		convertRow(frame.getY(), row * frame.getWidth(), frame.getCb(), frame.getCr(), (row >> 1) * frame.getChromaWidth(), width, rgb, rgbPos);
+	}
+
+	/**
+	 * Converts the visible part of a frame to a smaller (or larger) size.
+	 * Each pixel averages the Y, Cb and Cr samples of the area of the frame
+	 * it covers, and only the averages are converted.
+	 *
+	 * @param frame
+	 *            the planar YCbCr frame
+	 * @param width
+	 *            width of the visible part
+	 * @param height
+	 *            height of the visible part
+	 * @param scaledWidth
+	 *            width of the result
+	 * @param scaledHeight
+	 *            height of the result
+	 * @param rgb
+	 *            receives the packed pixels, row by row, with an alpha of 255
+	 */
+	public static void convertScaled(FrameBuffer frame, int width, int height, int scaledWidth, int scaledHeight, int rgb[]) {
+		byte y[] = frame.getY();
+		byte cb[] = frame.getCb();
+		byte cr[] = frame.getCr();
+		int stride = frame.getWidth();
+		int chromaStride = frame.getChromaWidth();
+
+		int rgbPos = 0;
+		for (int row = 0; row < scaledHeight; row++) {
+			int top = row * height / scaledHeight;
+			int bottom = Math.max(top + 1, (row + 1) * height / scaledHeight);
+			for (int col = 0; col < scaledWidth; col++) {
+				int left = col * width / scaledWidth;
+				int right = Math.max(left + 1, (col + 1) * width / scaledWidth);
+
+				int ySum = 0;
+				for (int i = top; i < bottom; i++) {
+					for (int j = i * stride + left, end = i * stride + right; j < end; j++)
+						ySum += y[j] & 0xFF;
+				}
+				int yCount = (bottom - top) * (right - left);
+
+				int cbSum = 0;
+				int crSum = 0;
+				int chromaLeft = left >> 1;
+				int chromaRight = (right + 1) >> 1;
+				int chromaTop = top >> 1;
+				int chromaBottom = (bottom + 1) >> 1;
+				for (int i = chromaTop; i < chromaBottom; i++) {
+					for (int j = i * chromaStride + chromaLeft, end = i * chromaStride + chromaRight; j < end; j++) {
+						cbSum += cb[j] & 0xFF;
+						crSum += cr[j] & 0xFF;
+					}
+				}
+				int cCount = (chromaBottom - chromaTop) * (chromaRight - chromaLeft);
+
+				rgb[rgbPos++] = convertPel((ySum + yCount / 2) / yCount, (cbSum + cCount / 2) / cCount, (crSum + cCount / 2) / cCount);
+			}
+		}
+	}
+
+	/**
+	 * Converts one pel.
+	 *
+	 * @return the packed pixel, with an alpha of 255
+	 */
+	public static int convertPel(int y, int cb, int cr) {
+		int lum = Y_TABLE[y];
+		return 0xFF000000 | (CLAMP[(lum + CR_RED[cr]) >> SHIFT] << 16) | (CLAMP[(lum + CB_GREEN[cb] + CR_GREEN[cr]) >> SHIFT] << 8) | CLAMP[(lum + CB_BLUE[cb]) >> SHIFT];
+	}
+
+	/**
+	 * Converts one row. Each Cb and Cr sample is used for the two
+	 * horizontally adjacent pels it covers.
+	 *
+	 * @param y
+	 *            the Y plane
+	 * @param yPos
+	 *            index in <code>y</code> of the first pel
+	 * @param cb
+	 *            the Cb plane
+	 * @param cr
+	 *            the Cr plane
+	 * @param cPos
+	 *            index in <code>cb</code> and <code>cr</code> of the first
+	 *            chroma sample
+	 * @param width
+	 *            number of pels
+	 * @param rgb
+	 *            receives the packed pixels
+	 * @param rgbPos
+	 *            index in <code>rgb</code> of the first pixel
+	 */
+	public static void convertRow(byte y[], int yPos, byte cb[], byte cr[], int cPos, int width, int rgb[], int rgbPos) {
+		int end = rgbPos + width;
+		while (rgbPos < end) {
+			int cbValue = cb[cPos] & 0xFF;
+			int crValue = cr[cPos] & 0xFF;
+			cPos++;
+			int red = CR_RED[crValue];
+			int green = CB_GREEN[cbValue] + CR_GREEN[crValue];
+			int blue = CB_BLUE[cbValue];
+
+			int lum = Y_TABLE[y[yPos++] & 0xFF];
+			rgb[rgbPos++] = 0xFF000000 | (CLAMP[(lum + red) >> SHIFT] << 16) | (CLAMP[(lum + green) >> SHIFT] << 8) | CLAMP[(lum + blue) >> SHIFT];
+			if (rgbPos == end)
+				break;
+
+			lum = Y_TABLE[y[yPos++] & 0xFF];
+			rgb[rgbPos++] = 0xFF000000 | (CLAMP[(lum + red) >> SHIFT] << 16) | (CLAMP[(lum + green) >> SHIFT] << 8) | CLAMP[(lum + blue) >> SHIFT];
+		}
+	}
+}
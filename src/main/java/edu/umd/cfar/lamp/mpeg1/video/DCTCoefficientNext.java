@@ -16,1173 +16,188 @@ import java.io.IOException;
 
 import edu.columbia.ee.flavor.Bitstream;
 import edu.umd.cfar.lamp.mpeg1.Parsable;
-import edu.umd.cfar.lamp.mpeg1.ParsingException;
 
+/**
+ * Corresponds to dct_coeff_next in ISO/IEC 11172-2 (Table B.5c and B.5d).
+ * The end_of_block and escape codes are decoded as well; check
+ * <code>isEndOfBlock()</code> and <code>isEscape()</code> after parsing.
+ */
 class DCTCoefficientNext implements Parsable {
-	private DCTCoefficientValues value = null;
+	// packed (level << 6) | run values for the codes that are not a run/level pair
+	static final int END_OF_BLOCK = 0;
+	static final int ESCAPE = 1;
 
-	public DCTCoefficientValues getValue() {
-		return value;
+	/**
+	 * The run/level codes shared by dct_coeff_first and dct_coeff_next, as
+	 * <code>{ code, length, run, level }</code> without the trailing sign
+	 * bit. Run 0, level 1 is left out, as it is the one code that differs
+	 * between the two.
+	 */
+	static final int run_level_codes[][] = {
+			{ 0x3, 3, 1, 1 }, // 011 s
+			{ 0x4, 4, 0, 2 }, // 0100 s
+			{ 0x5, 4, 2, 1 }, // 0101 s
+			{ 0x5, 5, 0, 3 }, // 0010.1 s
+			{ 0x7, 5, 3, 1 }, // 0011.1 s
+			{ 0x6, 5, 4, 1 }, // 0011.0 s
+			{ 0x6, 6, 1, 2 }, // 0001.10 s
+			{ 0x7, 6, 5, 1 }, // 0001.11 s
+			{ 0x5, 6, 6, 1 }, // 0001.01 s
+			{ 0x4, 6, 7, 1 }, // 0001.00 s
+			{ 0x6, 7, 0, 4 }, // 0000.110 s
+			{ 0x4, 7, 2, 2 }, // 0000.100 s
+			{ 0x7, 7, 8, 1 }, // 0000.111 s
+			{ 0x5, 7, 9, 1 }, // 0000.101 s
+			{ 0x26, 8, 0, 5 }, // 0010.0110 s
+			{ 0x21, 8, 0, 6 }, // 0010.0001 s
+			{ 0x25, 8, 1, 3 }, // 0010.0101 s
+			{ 0x24, 8, 3, 2 }, // 0010.0100 s
+			{ 0x27, 8, 10, 1 }, // 0010.0111 s
+			{ 0x23, 8, 11, 1 }, // 0010.0011 s
+			{ 0x22, 8, 12, 1 }, // 0010.0010 s
+			{ 0x20, 8, 13, 1 }, // 0010.0000 s
+			{ 0xA, 10, 0, 7 }, // 0000.0010.10 s
+			{ 0xC, 10, 1, 4 }, // 0000.0011.00 s
+			{ 0xB, 10, 2, 3 }, // 0000.0010.11 s
+			{ 0xF, 10, 4, 2 }, // 0000.0011.11 s
+			{ 0x9, 10, 5, 2 }, // 0000.0010.01 s
+			{ 0xE, 10, 14, 1 }, // 0000.0011.10 s
+			{ 0xD, 10, 15, 1 }, // 0000.0011.01 s
+			{ 0x8, 10, 16, 1 }, // 0000.0010.00 s
+			{ 0x1D, 12, 0, 8 }, // 0000.0001.1101 s
+			{ 0x18, 12, 0, 9 }, // 0000.0001.1000 s
+			{ 0x13, 12, 0, 10 }, // 0000.0001.0011 s
+			{ 0x10, 12, 0, 11 }, // 0000.0001.0000 s
+			{ 0x1B, 12, 1, 5 }, // 0000.0001.1011 s
+			{ 0x14, 12, 2, 4 }, // 0000.0001.0100 s
+			{ 0x1C, 12, 3, 3 }, // 0000.0001.1100 s
+			{ 0x12, 12, 4, 3 }, // 0000.0001.0010 s
+			{ 0x1E, 12, 6, 2 }, // 0000.0001.1110 s
+			{ 0x15, 12, 7, 2 }, // 0000.0001.0101 s
+			{ 0x11, 12, 8, 2 }, // 0000.0001.0001 s
+			{ 0x1F, 12, 17, 1 }, // 0000.0001.1111 s
+			{ 0x1A, 12, 18, 1 }, // 0000.0001.1010 s
+			{ 0x19, 12, 19, 1 }, // 0000.0001.1001 s
+			{ 0x17, 12, 20, 1 }, // 0000.0001.0111 s
+			{ 0x16, 12, 21, 1 }, // 0000.0001.0110 s
+			{ 0x1A, 13, 0, 12 }, // 0000.0000.1101.0 s
+			{ 0x19, 13, 0, 13 }, // 0000.0000.1100.1 s
+			{ 0x18, 13, 0, 14 }, // 0000.0000.1100.0 s
+			{ 0x17, 13, 0, 15 }, // 0000.0000.1011.1 s
+			{ 0x16, 13, 1, 6 }, // 0000.0000.1011.0 s
+			{ 0x15, 13, 1, 7 }, // 0000.0000.1010.1 s
+			{ 0x14, 13, 2, 5 }, // 0000.0000.1010.0 s
+			{ 0x13, 13, 3, 4 }, // 0000.0000.1001.1 s
+			{ 0x12, 13, 5, 3 }, // 0000.0000.1001.0 s
+			{ 0x11, 13, 9, 2 }, // 0000.0000.1000.1 s
+			{ 0x10, 13, 10, 2 }, // 0000.0000.1000.0 s
+			{ 0x1F, 13, 22, 1 }, // 0000.0000.1111.1 s
+			{ 0x1E, 13, 23, 1 }, // 0000.0000.1111.0 s
+			{ 0x1D, 13, 24, 1 }, // 0000.0000.1110.1 s
+			{ 0x1C, 13, 25, 1 }, // 0000.0000.1110.0 s
+			{ 0x1B, 13, 26, 1 }, // 0000.0000.1101.1 s
+			{ 0x1F, 14, 0, 16 }, // 0000.0000.0111.11 s
+			{ 0x1E, 14, 0, 17 }, // 0000.0000.0111.10 s
+			{ 0x1D, 14, 0, 18 }, // 0000.0000.0111.01 s
+			{ 0x1C, 14, 0, 19 }, // 0000.0000.0111.00 s
+			{ 0x1B, 14, 0, 20 }, // 0000.0000.0110.11 s
+			{ 0x1A, 14, 0, 21 }, // 0000.0000.0110.10 s
+			{ 0x19, 14, 0, 22 }, // 0000.0000.0110.01 s
+			{ 0x18, 14, 0, 23 }, // 0000.0000.0110.00 s
+			{ 0x17, 14, 0, 24 }, // 0000.0000.0101.11 s
+			{ 0x16, 14, 0, 25 }, // 0000.0000.0101.10 s
+			{ 0x15, 14, 0, 26 }, // 0000.0000.0101.01 s
+			{ 0x14, 14, 0, 27 }, // 0000.0000.0101.00 s
+			{ 0x13, 14, 0, 28 }, // 0000.0000.0100.11 s
+			{ 0x12, 14, 0, 29 }, // 0000.0000.0100.10 s
+			{ 0x11, 14, 0, 30 }, // 0000.0000.0100.01 s
+			{ 0x10, 14, 0, 31 }, // 0000.0000.0100.00 s
+			{ 0x18, 15, 0, 32 }, // 0000.0000.0011.000 s
+			{ 0x17, 15, 0, 33 }, // 0000.0000.0010.111 s
+			{ 0x16, 15, 0, 34 }, // 0000.0000.0010.110 s
+			{ 0x15, 15, 0, 35 }, // 0000.0000.0010.101 s
+			{ 0x14, 15, 0, 36 }, // 0000.0000.0010.100 s
+			{ 0x13, 15, 0, 37 }, // 0000.0000.0010.011 s
+			{ 0x12, 15, 0, 38 }, // 0000.0000.0010.010 s
+			{ 0x11, 15, 0, 39 }, // 0000.0000.0010.001 s
+			{ 0x10, 15, 0, 40 }, // 0000.0000.0010.000 s
+			{ 0x1F, 15, 1, 8 }, // 0000.0000.0011.111 s
+			{ 0x1E, 15, 1, 9 }, // 0000.0000.0011.110 s
+			{ 0x1D, 15, 1, 10 }, // 0000.0000.0011.101 s
+			{ 0x1C, 15, 1, 11 }, // 0000.0000.0011.100 s
+			{ 0x1B, 15, 1, 12 }, // 0000.0000.0011.011 s
+			{ 0x1A, 15, 1, 13 }, // 0000.0000.0011.010 s
+			{ 0x19, 15, 1, 14 }, // 0000.0000.0011.001 s
+			{ 0x13, 16, 1, 15 }, // 0000.0000.0001.0011 s
+			{ 0x12, 16, 1, 16 }, // 0000.0000.0001.0010 s
+			{ 0x11, 16, 1, 17 }, // 0000.0000.0001.0001 s
+			{ 0x10, 16, 1, 18 }, // 0000.0000.0001.0000 s
+			{ 0x14, 16, 6, 3 }, // 0000.0000.0001.0100 s
+			{ 0x1A, 16, 11, 2 }, // 0000.0000.0001.1010 s
+			{ 0x19, 16, 12, 2 }, // 0000.0000.0001.1001 s
+			{ 0x18, 16, 13, 2 }, // 0000.0000.0001.1000 s
+			{ 0x17, 16, 14, 2 }, // 0000.0000.0001.0111 s
+			{ 0x16, 16, 15, 2 }, // 0000.0000.0001.0110 s
+			{ 0x15, 16, 16, 2 }, // 0000.0000.0001.0101 s
+			{ 0x1F, 16, 27, 1 }, // 0000.0000.0001.1111 s
+			{ 0x1E, 16, 28, 1 }, // 0000.0000.0001.1110 s
+			{ 0x1D, 16, 29, 1 }, // 0000.0000.0001.1101 s
+			{ 0x1C, 16, 30, 1 }, // 0000.0000.0001.1100 s
+			{ 0x1B, 16, 31, 1 } // 0000.0000.0001.1011 s
+	};
+
+	private static final VlcTable table = createTable("DCTCoefficientNext", new int[][] {
+			{ 0x3, 2, 0, 1 } // 11 s
+	}, new int[][] {
+			{ 0x2, 2, END_OF_BLOCK }, // 10
+			{ 0x1, 6, ESCAPE } // 0000.01
+	});
+
+	private DCTCoefficientValues value = new DCTCoefficientValues();
+	private int code = END_OF_BLOCK;
+
+	/**
+	 * Builds a lookup table for the run/level codes.
+	 * 
+	 * @param name
+	 *            name of the table, used in error messages
+	 * @param extraRunLevelCodes
+	 *            run/level codes (without sign bit) in addition to the shared ones
+	 * @param specialCodes
+	 *            codes with a packed value, which are not followed by a sign bit
+	 * @return the table, whose values are packed as <code>(level << 6) | run</code>
+	 */
+	static VlcTable createTable(String name, int extraRunLevelCodes[][], int specialCodes[][]) {
+		int numRunLevelCodes = run_level_codes.length + extraRunLevelCodes.length;
+		int codes[][] = new int[2 * numRunLevelCodes + specialCodes.length][];
+		int n = 0;
+		for (int i = 0; i < numRunLevelCodes; i++) {
+			int rlc[] = (i < extraRunLevelCodes.length) ? extraRunLevelCodes[i] : run_level_codes[i - extraRunLevelCodes.length];
+			codes[n++] = new int[] { rlc[0] << 1, rlc[1] + 1, (rlc[3] << 6) | rlc[2] };
+			codes[n++] = new int[] { (rlc[0] << 1) | 1, rlc[1] + 1, (-rlc[3] << 6) | rlc[2] };
+		}
+		for (int i = 0; i < specialCodes.length; i++) {
+			codes[n++] = specialCodes[i];
+		}
+		return new VlcTable(name, 8, codes);
 	}
 
 	@Override
 	public void parse(Bitstream bitstream) throws IOException {
-		int run = 0;
-		int level = 0;
+		code = table.decode(bitstream);
+		value.setRun(code & 0x3F);
+		value.setLevel(code >> 6);
+	}
 
-		switch (bitstream.nextbits(3)) {
-			case 6:
-				bitstream.skipbits(3);
-				run = 0;
-				level = 1;
-				break;
-			case 7:
-				bitstream.skipbits(3);
-				run = 0;
-				level = -1;
-				break;
-			default:
-				switch (bitstream.nextbits(4)) {
-					case 6:
-						bitstream.skipbits(4);
-						run = 1;
-						level = 1;
-						break;
-					case 7:
-						bitstream.skipbits(4);
-						run = 1;
-						level = -1;
-						break;
-					default:
-						switch (bitstream.nextbits(5)) {
-							case 8:
-								bitstream.skipbits(5);
-								run = 0;
-								level = 2;
-								break;
-							case 9:
-								bitstream.skipbits(5);
-								run = 0;
-								level = -2;
-								break;
-							case 10:
-								bitstream.skipbits(5);
-								run = 2;
-								level = 1;
-								break;
-							case 11:
-								bitstream.skipbits(5);
-								run = 2;
-								level = -1;
-								break;
-							default:
-								switch (bitstream.nextbits(6)) {
-									case 10:
-										bitstream.skipbits(6);
-										run = 0;
-										level = 3;
-										break;
-									case 11:
-										bitstream.skipbits(6);
-										run = 0;
-										level = -3;
-										break;
-									case 14:
-										bitstream.skipbits(6);
-										run = 3;
-										level = 1;
-										break;
-									case 15:
-										bitstream.skipbits(6);
-										run = 3;
-										level = -1;
-										break;
-									case 12:
-										bitstream.skipbits(6);
-										run = 4;
-										level = 1;
-										break;
-									case 13:
-										bitstream.skipbits(6);
-										run = 4;
-										level = -1;
-										break;
-									default:
-										switch (bitstream.nextbits(7)) {
-											case 12:
-												bitstream.skipbits(7);
-												run = 1;
-												level = 2;
-												break;
-											case 13:
-												bitstream.skipbits(7);
-												run = 1;
-												level = -2;
-												break;
-											case 14:
-												bitstream.skipbits(7);
-												run = 5;
-												level = 1;
-												break;
-											case 15:
-												bitstream.skipbits(7);
-												run = 5;
-												level = -1;
-												break;
-											case 10:
-												bitstream.skipbits(7);
-												run = 6;
-												level = 1;
-												break;
-											case 11:
-												bitstream.skipbits(7);
-												run = 6;
-												level = -1;
-												break;
-											case 8:
-												bitstream.skipbits(7);
-												run = 7;
-												level = 1;
-												break;
-											case 9:
-												bitstream.skipbits(7);
-												run = 7;
-												level = -1;
-												break;
-											default:
-												switch (bitstream.nextbits(8)) {
-													case 12:
-														bitstream.skipbits(8);
-														run = 0;
-														level = 4;
-														break;
-													case 13:
-														bitstream.skipbits(8);
-														run = 0;
-														level = -4;
-														break;
-													case 8:
-														bitstream.skipbits(8);
-														run = 2;
-														level = 2;
-														break;
-													case 9:
-														bitstream.skipbits(8);
-														run = 2;
-														level = -2;
-														break;
-													case 14:
-														bitstream.skipbits(8);
-														run = 8;
-														level = 1;
-														break;
-													case 15:
-														bitstream.skipbits(8);
-														run = 8;
-														level = -1;
-														break;
-													case 10:
-														bitstream.skipbits(8);
-														run = 9;
-														level = 1;
-														break;
-													case 11:
-														bitstream.skipbits(8);
-														run = 9;
-														level = -1;
-														break;
-													default:
-														switch (bitstream.nextbits(9)) {
-															case 76:
-																bitstream.skipbits(9);
-																run = 0;
-																level = 5;
-																break;
-															case 77:
-																bitstream.skipbits(9);
-																run = 0;
-																level = -5;
-																break;
-															case 66:
-																bitstream.skipbits(9);
-																run = 0;
-																level = 6;
-																break;
-															case 67:
-																bitstream.skipbits(9);
-																run = 0;
-																level = -6;
-																break;
-															case 74:
-																bitstream.skipbits(9);
-																run = 1;
-																level = 3;
-																break;
-															case 75:
-																bitstream.skipbits(9);
-																run = 1;
-																level = -3;
-																break;
-															case 72:
-																bitstream.skipbits(9);
-																run = 3;
-																level = 2;
-																break;
-															case 73:
-																bitstream.skipbits(9);
-																run = 3;
-																level = -2;
-																break;
-															case 78:
-																bitstream.skipbits(9);
-																run = 10;
-																level = 1;
-																break;
-															case 79:
-																bitstream.skipbits(9);
-																run = 10;
-																level = -1;
-																break;
-															case 70:
-																bitstream.skipbits(9);
-																run = 11;
-																level = 1;
-																break;
-															case 71:
-																bitstream.skipbits(9);
-																run = 11;
-																level = -1;
-																break;
-															case 68:
-																bitstream.skipbits(9);
-																run = 12;
-																level = 1;
-																break;
-															case 69:
-																bitstream.skipbits(9);
-																run = 12;
-																level = -1;
-																break;
-															case 64:
-																bitstream.skipbits(9);
-																run = 13;
-																level = 1;
-																break;
-															case 65:
-																bitstream.skipbits(9);
-																run = 13;
-																level = -1;
-																break;
-															default:
-																switch (bitstream.nextbits(11)) {
-																	case 20:
-																		bitstream.skipbits(11);
-																		run = 0;
-																		level = 7;
-																		break;
-																	case 21:
-																		bitstream.skipbits(11);
-																		run = 0;
-																		level = -7;
-																		break;
-																	case 24:
-																		bitstream.skipbits(11);
-																		run = 1;
-																		level = 4;
-																		break;
-																	case 25:
-																		bitstream.skipbits(11);
-																		run = 1;
-																		level = -4;
-																		break;
-																	case 22:
-																		bitstream.skipbits(11);
-																		run = 2;
-																		level = 3;
-																		break;
-																	case 23:
-																		bitstream.skipbits(11);
-																		run = 2;
-																		level = -3;
-																		break;
-																	case 30:
-																		bitstream.skipbits(11);
-																		run = 4;
-																		level = 2;
-																		break;
-																	case 31:
-																		bitstream.skipbits(11);
-																		run = 4;
-																		level = -2;
-																		break;
-																	case 18:
-																		bitstream.skipbits(11);
-																		run = 5;
-																		level = 2;
-																		break;
-																	case 19:
-																		bitstream.skipbits(11);
-																		run = 5;
-																		level = -2;
-																		break;
-																	case 28:
-																		bitstream.skipbits(11);
-																		run = 14;
-																		level = 1;
-																		break;
-																	case 29:
-																		bitstream.skipbits(11);
-																		run = 14;
-																		level = -1;
-																		break;
-																	case 26:
-																		bitstream.skipbits(11);
-																		run = 15;
-																		level = 1;
-																		break;
-																	case 27:
-																		bitstream.skipbits(11);
-																		run = 15;
-																		level = -1;
-																		break;
-																	case 16:
-																		bitstream.skipbits(11);
-																		run = 16;
-																		level = 1;
-																		break;
-																	case 17:
-																		bitstream.skipbits(11);
-																		run = 16;
-																		level = -1;
-																		break;
-																	default:
-																		switch (bitstream.nextbits(13)) {
-																			case 58:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = 8;
-																				break;
-																			case 59:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = -8;
-																				break;
-																			case 48:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = 9;
-																				break;
-																			case 49:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = -9;
-																				break;
-																			case 38:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = 10;
-																				break;
-																			case 39:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = -10;
-																				break;
-																			case 32:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = 11;
-																				break;
-																			case 33:
-																				bitstream.skipbits(13);
-																				run = 0;
-																				level = -11;
-																				break;
-																			case 54:
-																				bitstream.skipbits(13);
-																				run = 1;
-																				level = 5;
-																				break;
-																			case 55:
-																				bitstream.skipbits(13);
-																				run = 1;
-																				level = -5;
-																				break;
-																			case 40:
-																				bitstream.skipbits(13);
-																				run = 2;
-																				level = 4;
-																				break;
-																			case 41:
-																				bitstream.skipbits(13);
-																				run = 2;
-																				level = -4;
-																				break;
-																			case 56:
-																				bitstream.skipbits(13);
-																				run = 3;
-																				level = 3;
-																				break;
-																			case 57:
-																				bitstream.skipbits(13);
-																				run = 3;
-																				level = -3;
-																				break;
-																			case 36:
-																				bitstream.skipbits(13);
-																				run = 4;
-																				level = 3;
-																				break;
-																			case 37:
-																				bitstream.skipbits(13);
-																				run = 4;
-																				level = -3;
-																				break;
-																			case 60:
-																				bitstream.skipbits(13);
-																				run = 6;
-																				level = 2;
-																				break;
-																			case 61:
-																				bitstream.skipbits(13);
-																				run = 6;
-																				level = -2;
-																				break;
-																			case 42:
-																				bitstream.skipbits(13);
-																				run = 7;
-																				level = 2;
-																				break;
-																			case 43:
-																				bitstream.skipbits(13);
-																				run = 7;
-																				level = -2;
-																				break;
-																			case 34:
-																				bitstream.skipbits(13);
-																				run = 8;
-																				level = 2;
-																				break;
-																			case 35:
-																				bitstream.skipbits(13);
-																				run = 8;
-																				level = -2;
-																				break;
-																			case 62:
-																				bitstream.skipbits(13);
-																				run = 17;
-																				level = 1;
-																				break;
-																			case 63:
-																				bitstream.skipbits(13);
-																				run = 17;
-																				level = -1;
-																				break;
-																			case 52:
-																				bitstream.skipbits(13);
-																				run = 18;
-																				level = 1;
-																				break;
-																			case 53:
-																				bitstream.skipbits(13);
-																				run = 18;
-																				level = -1;
-																				break;
-																			case 50:
-																				bitstream.skipbits(13);
-																				run = 19;
-																				level = 1;
-																				break;
-																			case 51:
-																				bitstream.skipbits(13);
-																				run = 19;
-																				level = -1;
-																				break;
-																			case 46:
-																				bitstream.skipbits(13);
-																				run = 20;
-																				level = 1;
-																				break;
-																			case 47:
-																				bitstream.skipbits(13);
-																				run = 20;
-																				level = -1;
-																				break;
-																			case 44:
-																				bitstream.skipbits(13);
-																				run = 21;
-																				level = 1;
-																				break;
-																			case 45:
-																				bitstream.skipbits(13);
-																				run = 21;
-																				level = -1;
-																				break;
-																			default:
-																				switch (bitstream.nextbits(14)) {
-																					case 52:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = 12;
-																						break;
-																					case 53:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = -12;
-																						break;
-																					case 50:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = 13;
-																						break;
-																					case 51:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = -13;
-																						break;
-																					case 48:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = 14;
-																						break;
-																					case 49:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = -14;
-																						break;
-																					case 46:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = 15;
-																						break;
-																					case 47:
-																						bitstream.skipbits(14);
-																						run = 0;
-																						level = -15;
-																						break;
-																					case 44:
-																						bitstream.skipbits(14);
-																						run = 1;
-																						level = 6;
-																						break;
-																					case 45:
-																						bitstream.skipbits(14);
-																						run = 1;
-																						level = -6;
-																						break;
-																					case 42:
-																						bitstream.skipbits(14);
-																						run = 1;
-																						level = 7;
-																						break;
-																					case 43:
-																						bitstream.skipbits(14);
-																						run = 1;
-																						level = -7;
-																						break;
-																					case 40:
-																						bitstream.skipbits(14);
-																						run = 2;
-																						level = 5;
-																						break;
-																					case 41:
-																						bitstream.skipbits(14);
-																						run = 2;
-																						level = -5;
-																						break;
-																					case 38:
-																						bitstream.skipbits(14);
-																						run = 3;
-																						level = 4;
-																						break;
-																					case 39:
-																						bitstream.skipbits(14);
-																						run = 3;
-																						level = -4;
-																						break;
-																					case 36:
-																						bitstream.skipbits(14);
-																						run = 5;
-																						level = 3;
-																						break;
-																					case 37:
-																						bitstream.skipbits(14);
-																						run = 5;
-																						level = -3;
-																						break;
-																					case 34:
-																						bitstream.skipbits(14);
-																						run = 9;
-																						level = 2;
-																						break;
-																					case 35:
-																						bitstream.skipbits(14);
-																						run = 9;
-																						level = -2;
-																						break;
-																					case 32:
-																						bitstream.skipbits(14);
-																						run = 10;
-																						level = 2;
-																						break;
-																					case 33:
-																						bitstream.skipbits(14);
-																						run = 10;
-																						level = -2;
-																						break;
-																					case 62:
-																						bitstream.skipbits(14);
-																						run = 22;
-																						level = 1;
-																						break;
-																					case 63:
-																						bitstream.skipbits(14);
-																						run = 22;
-																						level = -1;
-																						break;
-																					case 60:
-																						bitstream.skipbits(14);
-																						run = 23;
-																						level = 1;
-																						break;
-																					case 61:
-																						bitstream.skipbits(14);
-																						run = 23;
-																						level = -1;
-																						break;
-																					case 58:
-																						bitstream.skipbits(14);
-																						run = 24;
-																						level = 1;
-																						break;
-																					case 59:
-																						bitstream.skipbits(14);
-																						run = 24;
-																						level = -1;
-																						break;
-																					case 56:
-																						bitstream.skipbits(14);
-																						run = 25;
-																						level = 1;
-																						break;
-																					case 57:
-																						bitstream.skipbits(14);
-																						run = 25;
-																						level = -1;
-																						break;
-																					case 54:
-																						bitstream.skipbits(14);
-																						run = 26;
-																						level = 1;
-																						break;
-																					case 55:
-																						bitstream.skipbits(14);
-																						run = 26;
-																						level = -1;
-																						break;
-																					default:
-																						switch (bitstream.nextbits(15)) {
-																							case 62:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 16;
-																								break;
-																							case 63:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -16;
-																								break;
-																							case 60:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 17;
-																								break;
-																							case 61:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -17;
-																								break;
-																							case 58:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 18;
-																								break;
-																							case 59:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -18;
-																								break;
-																							case 56:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 19;
-																								break;
-																							case 57:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -19;
-																								break;
-																							case 54:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 20;
-																								break;
-																							case 55:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -20;
-																								break;
-																							case 52:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 21;
-																								break;
-																							case 53:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -21;
-																								break;
-																							case 50:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 22;
-																								break;
-																							case 51:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -22;
-																								break;
-																							case 48:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 23;
-																								break;
-																							case 49:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -23;
-																								break;
-																							case 46:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 24;
-																								break;
-																							case 47:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -24;
-																								break;
-																							case 44:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 25;
-																								break;
-																							case 45:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -25;
-																								break;
-																							case 42:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 26;
-																								break;
-																							case 43:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -26;
-																								break;
-																							case 40:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 27;
-																								break;
-																							case 41:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -27;
-																								break;
-																							case 38:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 28;
-																								break;
-																							case 39:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -28;
-																								break;
-																							case 36:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 29;
-																								break;
-																							case 37:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -29;
-																								break;
-																							case 34:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 30;
-																								break;
-																							case 35:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -30;
-																								break;
-																							case 32:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = 31;
-																								break;
-																							case 33:
-																								bitstream.skipbits(15);
-																								run = 0;
-																								level = -31;
-																								break;
-																							default:
-																								switch (bitstream.nextbits(16)) {
-																									case 48:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 32;
-																										break;
-																									case 49:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -32;
-																										break;
-																									case 46:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 33;
-																										break;
-																									case 47:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -33;
-																										break;
-																									case 44:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 34;
-																										break;
-																									case 45:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -34;
-																										break;
-																									case 42:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 35;
-																										break;
-																									case 43:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -35;
-																										break;
-																									case 40:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 36;
-																										break;
-																									case 41:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -36;
-																										break;
-																									case 38:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 37;
-																										break;
-																									case 39:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -37;
-																										break;
-																									case 36:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 38;
-																										break;
-																									case 37:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -38;
-																										break;
-																									case 34:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 39;
-																										break;
-																									case 35:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -39;
-																										break;
-																									case 32:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = 40;
-																										break;
-																									case 33:
-																										bitstream.skipbits(16);
-																										run = 0;
-																										level = -40;
-																										break;
-																									case 62:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 8;
-																										break;
-																									case 63:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -8;
-																										break;
-																									case 60:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 9;
-																										break;
-																									case 61:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -9;
-																										break;
-																									case 58:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 10;
-																										break;
-																									case 59:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -10;
-																										break;
-																									case 56:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 11;
-																										break;
-																									case 57:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -11;
-																										break;
-																									case 54:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 12;
-																										break;
-																									case 55:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -12;
-																										break;
-																									case 52:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 13;
-																										break;
-																									case 53:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -13;
-																										break;
-																									case 50:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = 14;
-																										break;
-																									case 51:
-																										bitstream.skipbits(16);
-																										run = 1;
-																										level = -14;
-																										break;
-																									default:
-																										switch (bitstream.nextbits(17)) {
-																											case 38:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = 15;
-																												break;
-																											case 39:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = -15;
-																												break;
-																											case 36:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = 16;
-																												break;
-																											case 37:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = -16;
-																												break;
-																											case 34:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = 17;
-																												break;
-																											case 35:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = -17;
-																												break;
-																											case 32:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = 18;
-																												break;
-																											case 33:
-																												bitstream.skipbits(17);
-																												run = 1;
-																												level = -18;
-																												break;
-																											case 40:
-																												bitstream.skipbits(17);
-																												run = 6;
-																												level = 3;
-																												break;
-																											case 41:
-																												bitstream.skipbits(17);
-																												run = 6;
-																												level = -3;
-																												break;
-																											case 52:
-																												bitstream.skipbits(17);
-																												run = 11;
-																												level = 2;
-																												break;
-																											case 53:
-																												bitstream.skipbits(17);
-																												run = 11;
-																												level = -2;
-																												break;
-																											case 50:
-																												bitstream.skipbits(17);
-																												run = 12;
-																												level = 2;
-																												break;
-																											case 51:
-																												bitstream.skipbits(17);
-																												run = 12;
-																												level = -2;
-																												break;
-																											case 48:
-																												bitstream.skipbits(17);
-																												run = 13;
-																												level = 2;
-																												break;
-																											case 49:
-																												bitstream.skipbits(17);
-																												run = 13;
-																												level = -2;
-																												break;
-																											case 46:
-																												bitstream.skipbits(17);
-																												run = 14;
-																												level = 2;
-																												break;
-																											case 47:
-																												bitstream.skipbits(17);
-																												run = 14;
-																												level = -2;
-																												break;
-																											case 44:
-																												bitstream.skipbits(17);
-																												run = 15;
-																												level = 2;
-																												break;
-																											case 45:
-																												bitstream.skipbits(17);
-																												run = 15;
-																												level = -2;
-																												break;
-																											case 42:
-																												bitstream.skipbits(17);
-																												run = 16;
-																												level = 2;
-																												break;
-																											case 43:
-																												bitstream.skipbits(17);
-																												run = 16;
-																												level = -2;
-																												break;
-																											case 62:
-																												bitstream.skipbits(17);
-																												run = 27;
-																												level = 1;
-																												break;
-																											case 63:
-																												bitstream.skipbits(17);
-																												run = 27;
-																												level = -1;
-																												break;
-																											case 60:
-																												bitstream.skipbits(17);
-																												run = 28;
-																												level = 1;
-																												break;
-																											case 61:
-																												bitstream.skipbits(17);
-																												run = 28;
-																												level = -1;
-																												break;
-																											case 58:
-																												bitstream.skipbits(17);
-																												run = 29;
-																												level = 1;
-																												break;
-																											case 59:
-																												bitstream.skipbits(17);
-																												run = 29;
-																												level = -1;
-																												break;
-																											case 56:
-																												bitstream.skipbits(17);
-																												run = 30;
-																												level = 1;
-																												break;
-																											case 57:
-																												bitstream.skipbits(17);
-																												run = 30;
-																												level = -1;
-																												break;
-																											case 54:
-																												bitstream.skipbits(17);
-																												run = 31;
-																												level = 1;
-																												break;
-																											case 55:
-																												bitstream.skipbits(17);
-																												run = 31;
-																												level = -1;
-																												break;
-																											default:
-																												throw new ParsingException("VLC decode for DCTCoefficientNext failed.");
-																										}
-																								}
-																						}
-																				}
-																		}
-																}
-														}
-												}
-										}
-								}
-						}
-				}
-		}
-		if (value == null)
-			value = new DCTCoefficientValues();
-		value.setRun(run);
-		value.setLevel(level);
+	public boolean isEndOfBlock() {
+		return code == END_OF_BLOCK;
+	}
+
+	public boolean isEscape() {
+		return code == ESCAPE;
+	}
+
+	public DCTCoefficientValues getValue() {
+		return value;
 	}
 }
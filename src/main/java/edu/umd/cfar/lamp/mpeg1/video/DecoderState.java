@@ -13,9 +13,19 @@
 package edu.umd.cfar.lamp.mpeg1.video;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.columbia.ee.flavor.Bitstream;
+import edu.columbia.ee.flavor.FlIOException;
+import edu.umd.cfar.lamp.mpeg1.ByteBufferBitstream;
 import edu.umd.cfar.lamp.mpeg1.MpegException;
 
 class DecoderState extends ParserState {
@@ -31,24 +41,58 @@ class DecoderState extends ParserState {
 
 	private int quantizer_scale;
 
-	private int currentYCbCr[];
-	private int pastYCbCr[];
-	private int futureYCbCr[];
+	private FrameBuffer current;
+	private FrameBuffer past;
+	private FrameBuffer future;
 	private int frameInCurrent = -1;
 	private int frameInPast = -1;
 	private int frameInFuture = -1;
 
+	// reused for every picture; read forward to the next picture when it is
+	// close enough, as in linear playback, and repositioned with seek()
+	// otherwise
+	private ByteBufferBitstream bitstream = null;
+	private static final long MAX_READ_AHEAD = 1024 * 1024;
+
+	// states of the tasks decoding slices in parallel, each with its own
+	// Macroblock and Block
+	private List<DecoderState> sliceWorkers = new ArrayList<DecoderState>();
+
 	public DecoderState(VideoDecoder videoDecoder) throws IOException, MpegException {
 		this.videoDecoder = videoDecoder;
 		currentSequenceHeader = videoDecoder.getSequenceHeader(0);
 
-		currentYCbCr = new int[getFrameWidth() * getFrameHeight()];
-		pastYCbCr = new int[getFrameWidth() * getFrameHeight()];
-		futureYCbCr = new int[getFrameWidth() * getFrameHeight()];
+		setScaleShift(videoDecoder.getScaleShift());
+	}
+
+	/**
+	 * Allocates the frames at a scale, dropping the frames decoded so far.
+	 * 
+	 * @param shift
+	 *            log2 of the scale, from 0 (full size) to 3 (1/8 size)
+	 */
+	public void setScaleShift(int shift) throws IOException, MpegException {
+		current = new FrameBuffer(getMbWidth(), currentSequenceHeader.getMbHeight(), shift);
+		past = new FrameBuffer(getMbWidth(), currentSequenceHeader.getMbHeight(), shift);
+		future = new FrameBuffer(getMbWidth(), currentSequenceHeader.getMbHeight(), shift);
+		frameInCurrent = -1;
+		frameInPast = -1;
+		frameInFuture = -1;
+	}
+
+	/**
+	 * @return log2 of the scale of the frames: 0 at full size
+	 */
+	public int getScaleShift() {
+		return current.getScaleShift();
+	}
 
-		Arrays.fill(currentYCbCr, 0xFF108080); // black
-		Arrays.fill(pastYCbCr, 0xFF108080); // black
-		Arrays.fill(futureYCbCr, 0xFF108080); // black
+	/**
+	 * Constructs the state of a task decoding slices into the frames of
+	 * another state.
+	 */
+	private DecoderState(DecoderState parent) {
+		this.videoDecoder = parent.videoDecoder;
 	}
 
 	public void decodePicture(Bitstream bitstream) throws IOException, MpegException {
@@ -68,15 +112,108 @@ class DecoderState extends ParserState {
 		block.decode(bitstream, this);
 	}
 
+	public ForkJoinPool getSlicePool() {
+		return videoDecoder.getSlicePool();
+	}
+
+	/**
+	 * Decodes the slices of the current picture in parallel on the slice
+	 * pool. The start codes of the slices are located first, and then each
+	 * task takes the next slice not yet taken, until none are left.
+	 * 
+	 * @param bitstream
+	 *            positioned at the first slice; left after the last one
+	 */
+	public void decodeSlicesInParallel(ByteBufferBitstream bitstream) throws IOException, MpegException {
+		// start codes cannot occur inside slice data, so the slices end at the next one
+		final List<Long> positions = new ArrayList<Long>();
+		try {
+			while (VideoStartCodes.isSliceStartCode(bitstream.nextbits(32))) {
+				positions.add(bitstream.getStreamPosition());
+				bitstream.skipbits(32);
+				while (bitstream.nextbits(24) != 1)
+					bitstream.skipbits(8);
+			}
+		} catch (FlIOException e) {
+			if (!e.getMessage().equals("End of Data"))
+				throw e;
+		}
+
+		ForkJoinPool pool = getSlicePool();
+		int tasks = Math.min(pool.getParallelism(), positions.size());
+		while (sliceWorkers.size() < tasks)
+			sliceWorkers.add(new DecoderState(this));
+
+		final AtomicInteger next = new AtomicInteger();
+		List<Callable<Void>> calls = new ArrayList<Callable<Void>>();
+		for (int i = 0; i < tasks; i++) {
+			final DecoderState worker = sliceWorkers.get(i);
+			worker.beginSlices(this);
+			calls.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					worker.decodeSlices(positions, next);
+					return null;
+				}
+			});
+		}
+
+		for (Future<Void> result : pool.invokeAll(calls)) {
+			try {
+				result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while decoding slices.");
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				if (cause instanceof MpegException)
+					throw (MpegException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new MpegException(cause.toString());
+			}
+		}
+	}
+
+	/**
+	 * Shares the picture and the frames of another state, before decoding
+	 * slices of its current picture.
+	 */
+	private void beginSlices(DecoderState parent) {
+		currentSequenceHeader = parent.currentSequenceHeader;
+		picture = parent.picture;
+		current = parent.current;
+		past = parent.past;
+		future = parent.future;
+	}
+
+	private void decodeSlices(List<Long> positions, AtomicInteger next) throws IOException, MpegException {
+		for (int i = next.getAndIncrement(); i < positions.size(); i = next.getAndIncrement()) {
+			long position = positions.get(i).longValue();
+			if (bitstream == null)
+				bitstream = new ByteBufferBitstream(videoDecoder.getVideoSource(), position);
+			else
+				bitstream.seek(position);
+
+			try {
+				decodeSlice(bitstream);
+			} catch (Exception e) {
+				// as in serial decoding, the rest of a damaged slice is left as it is
+			}
+		}
+	}
+
 	public void seek(int frame) throws IOException, MpegException {
 		if (frame != frameInCurrent) // no need to decode the frame if you already have it
 		{
 			switch (videoDecoder.getPictureCodingType(frame)) {
 				case PictureCodingTypes.TYPE_I:
-					decodeI(frame);
-					break;
 				case PictureCodingTypes.TYPE_P:
-					decodeP(frame);
+					decodeIOrP(frame);
 					break;
 				case PictureCodingTypes.TYPE_B:
 					decodeB(frame);
@@ -88,6 +225,22 @@ class DecoderState extends ParserState {
 		}
 	}
 
+	/**
+	 * Makes a frame decoded earlier the current frame, without decoding
+	 * anything. The frame in the current buffer is replaced.
+	 * 
+	 * @param frame
+	 *            the frame number
+	 * @param copy
+	 *            the decoded frame
+	 */
+	public void restore(int frame, FrameBuffer copy) {
+		if (frame != frameInCurrent) {
+			current.copyFrom(copy);
+			frameInCurrent = frame;
+		}
+	}
+
 	/**
 	 * Decode a picture.
 	 * Assumed the environment is correctly set up (right frames in right
@@ -101,160 +254,221 @@ class DecoderState extends ParserState {
 	private void decode(int frame) throws IOException, MpegException {
 		currentSequenceHeader = videoDecoder.getSequenceHeader(frame);
 		long position = videoDecoder.getPosition(frame);
-		VideoSource videoSource = videoDecoder.getVideoSource();
-		videoSource.seek(position);
-		Bitstream bitstream = new Bitstream(videoSource);
+		if (bitstream == null)
+			bitstream = new ByteBufferBitstream(videoDecoder.getVideoSource(), position);
+		else
+			bitstream.skipTo(position, MAX_READ_AHEAD);
 		decodePicture(bitstream);
 		frameInCurrent = frame;
 	}
 
-	private void decodeIOrP(int frame) throws IOException, MpegException {
+	/**
+	 * Lists the pictures <code>seek</code> would decode to reach a frame,
+	 * given the pictures in the buffers and the checkpoints, without decoding
+	 * anything.
+	 * 
+	 * @param frame
+	 *            the frame to reach
+	 * @return the pictures, in the order they would be decoded
+	 */
+	public List<Integer> planSeek(int frame) throws IOException, MpegException {
+		List<Integer> plan = new ArrayList<Integer>();
+		if (isBuffered(frame))
+			return plan;
+
 		switch (videoDecoder.getPictureCodingType(frame)) {
 			case PictureCodingTypes.TYPE_I:
-				decodeI(frame);
-				break;
 			case PictureCodingTypes.TYPE_P:
-				decodeP(frame);
+				planAnchors(frame, plan);
+				Collections.reverse(plan);
+				break;
+			case PictureCodingTypes.TYPE_B:
+				int next = videoDecoder.getLastIOrPFrame(frame);
+				int previous = getPreviousAnchor(next);
+				if (previous != -1) {
+					planAnchors(previous, plan);
+					Collections.reverse(plan);
+				}
+				if (!isAtHand(next))
+					plan.add(next);
+				plan.add(frame);
+				break;
+			case PictureCodingTypes.TYPE_D:
+				plan.add(frame);
 				break;
 		}
+		return plan;
 	}
 
-	private void decodeI(int frame) throws IOException, MpegException {
-		if (frameInPast == frame)
-			swapCurrentWithPast();
-		else if (frameInFuture == frame)
-			swapCurrentWithFuture();
-		else
-			decode(frame);
+	/**
+	 * Walks back from an I or P picture along the P pictures it is predicted
+	 * from, to the first one that is at hand.
+	 * 
+	 * @param frame
+	 *            the picture
+	 * @param plan
+	 *            receives the pictures to decode, latest first
+	 * @return the picture at hand, or -1 if the plan starts with an I picture
+	 */
+	private int planAnchors(int frame, List<Integer> plan) throws IOException, MpegException {
+		int anchor = frame;
+		while (!isAtHand(anchor)) {
+			plan.add(anchor);
+			if (videoDecoder.getPictureCodingType(anchor) != PictureCodingTypes.TYPE_P)
+				return -1;
+			anchor = videoDecoder.getLastIOrPFrame(anchor);
+		}
+		return anchor;
 	}
 
-	private void decodeP(int frame) throws IOException, MpegException {
-		// lastIOrP we want in the pastYCbCr buffer
-		int lastIOrP = videoDecoder.getLastIOrPFrame(frame);
+	private boolean isBuffered(int frame) {
+		return frame == frameInCurrent || frame == frameInPast || frame == frameInFuture;
+	}
 
-		// speed optimization: no need to do all the recursive decoding if you've already got the frame
-		if (frameInPast == frame)
-			swapCurrentWithPast();
-		else if (frameInFuture == frame)
-			swapCurrentWithFuture();
-		else // will have to decode at least the current frame
-		{
-			if (frameInCurrent == lastIOrP)
-				swapCurrentWithPast();
-			else if (frameInFuture == lastIOrP)
-				swapPastWithFuture();
-			else if (frameInPast != lastIOrP) {
-				decodeIOrP(lastIOrP);
-				swapCurrentWithPast();
+	/**
+	 * @return whether a picture is in one of the buffers or in a checkpoint
+	 */
+	private boolean isAtHand(int frame) {
+		FrameCache checkpoints = videoDecoder.getCheckpoints();
+		return isBuffered(frame) || (checkpoints != null && checkpoints.contains(frame));
+	}
+
+	/**
+	 * @return the I or P picture before an anchor, or -1 if the stream starts
+	 *         with B pictures predicted from that anchor only
+	 */
+	private int getPreviousAnchor(int anchor) throws IOException, MpegException {
+		try {
+			return videoDecoder.getLastIOrPFrame(anchor);
+		} catch (FrameNotFoundException fnfe) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Puts an I or P picture in the current buffer, decoding the pictures
+	 * planned by <code>planAnchors</code> from the one at hand.
+	 * 
+	 * @param frame
+	 *            the frame to decode
+	 */
+	private void decodeIOrP(int frame) throws IOException, MpegException {
+		FrameCache checkpoints = videoDecoder.getCheckpoints();
+		List<Integer> plan = new ArrayList<Integer>(); // latest first
+		int anchor = planAnchors(frame, plan);
+
+		// the anchor at hand goes where the first picture of the plan expects
+		// its reference, or in the current buffer if it is the frame itself
+		if (anchor != -1) {
+			if (!isBuffered(anchor)) {
+				FrameBuffer checkpoint = checkpoints.get(anchor);
+				if (plan.isEmpty()) {
+					restore(anchor, checkpoint);
+				} else {
+					past.copyFrom(checkpoint);
+					frameInPast = anchor;
+				}
+			} else if (plan.isEmpty()) {
+				if (frameInPast == anchor)
+					swapCurrentWithPast();
+				else if (frameInFuture == anchor)
+					swapCurrentWithFuture();
+			} else {
+				if (frameInCurrent == anchor)
+					swapCurrentWithPast();
+				else if (frameInFuture == anchor)
+					swapPastWithFuture();
 			}
-			decode(frame);
+		}
+
+		for (int i = plan.size() - 1; i >= 0; i--) {
+			int picture = plan.get(i).intValue();
+			decode(picture);
+			if (checkpoints != null && frameInPast != -1 && isCheckpoint(picture, frameInPast))
+				checkpoints.put(picture, current);
+			if (i > 0)
+				swapCurrentWithPast();
 		}
 	}
 
+	/**
+	 * Decides whether to keep a copy of a P picture: the first one in each
+	 * interval of frames is kept, so no more than an interval of pictures
+	 * is decoded to reach any other.
+	 * 
+	 * @param frame
+	 *            the P picture
+	 * @param reference
+	 *            the picture it is predicted from
+	 */
+	private boolean isCheckpoint(int frame, int reference) throws IOException, MpegException {
+		if (videoDecoder.getPictureCodingType(frame) != PictureCodingTypes.TYPE_P)
+			return false;
+		int interval = videoDecoder.getCheckpointInterval();
+		return frame / interval != reference / interval;
+	}
+
+	/**
+	 * Decodes a B picture into the current buffer, with the anchor before it
+	 * in the past buffer and the anchor after it in the future buffer. The
+	 * later anchor is put in place first, if it is at hand, since reaching
+	 * the earlier one only uses the current and past buffers.
+	 * 
+	 * @param frame
+	 *            the frame to decode
+	 */
 	private void decodeB(int frame) throws IOException, MpegException {
-		if (frameInPast == frame)
+		if (frameInPast == frame) {
 			swapCurrentWithPast();
-		else if (frameInFuture == frame)
+			return;
+		}
+		if (frameInFuture == frame) {
 			swapCurrentWithFuture();
-		else {
-			// lastIOrP we want in the futureYCbCr buffer
-			int lastIOrP = videoDecoder.getLastIOrPFrame(frame);
+			return;
+		}
 
-			// secondLastIOrP we want in the pastYCbCr buffer
-			int secondLastIOrP = -1;
-			try {
-				secondLastIOrP = videoDecoder.getLastIOrPFrame(lastIOrP);
-			} catch (FrameNotFoundException fnfe) {
-				// could be that the sequence begins with backward-predicted B frames
-				// in which case, basically treat it like a P frame but with lastIOrP in future instead of past
-				decodeIOrP(lastIOrP);
-				swapCurrentWithFuture();
-				decode(frame);
-				return;
-			}
+		int next = videoDecoder.getLastIOrPFrame(frame);
+		int previous = getPreviousAnchor(next);
 
-			if (frameInPast == secondLastIOrP) {
-				if (frameInCurrent == lastIOrP) {
-					swapCurrentWithFuture();
-					decode(frame);
-				} else // frame in current is not anything useful
-				{
-					if (frameInFuture == lastIOrP) {
-						decode(frame);
-					} else {
-						decodeIOrP(lastIOrP);
-						swapCurrentWithFuture();
-						decode(frame);
-					}
-				}
-			} else if (frameInPast == lastIOrP) {
-				if (frameInCurrent == secondLastIOrP) {
-					swapCurrentWithPast();
-					swapCurrentWithFuture();
-					decode(frame);
-				} else // frameInCurrent is not anything useful
-				{
-					if (frameInFuture == secondLastIOrP) {
-						swapPastWithFuture();
-						decode(frame);
-					} else // frameInFuture is not anything useful
-					{
-						swapPastWithFuture();
-						decodeIOrP(secondLastIOrP);
-						swapCurrentWithPast();
-						decode(frame);
-					}
-				}
-			} else // frameInPast is not anything useful
-			{
-				if (frameInCurrent == secondLastIOrP) {
-					if (frameInFuture == lastIOrP) {
-						swapCurrentWithPast();
-						decode(frame);
-					} else // frameInFuture is not anything useful
-					{
-						swapCurrentWithPast();
-						decodeIOrP(lastIOrP);
-						swapCurrentWithFuture();
-						decode(frame);
-					}
-				} else if (frameInCurrent == lastIOrP) {
-					if (frameInFuture == secondLastIOrP) {
-						swapCurrentWithFuture();
-						swapCurrentWithPast();
-						decode(frame);
-					} else // frameInFuture is not anything useful
-					{
-						swapCurrentWithFuture();
-						decodeIOrP(secondLastIOrP);
-						swapCurrentWithPast();
-						decode(frame);
-					}
-				} else // frameInCurrent is not anything useful
-				{
-					if (frameInFuture == secondLastIOrP) {
-						swapPastWithFuture();
-						decodeIOrP(lastIOrP);
-						swapCurrentWithFuture();
-						decode(frame);
-					} else if (frameInFuture == lastIOrP) {
-						decodeIOrP(secondLastIOrP);
-						swapCurrentWithPast();
-						decode(frame);
-					} else // frameInFuture is not anything useful
-					{
-						decodeIOrP(secondLastIOrP);
-						swapCurrentWithPast();
-						decodeIOrP(lastIOrP);
-						swapCurrentWithFuture();
-						decode(frame);
-					}
-				}
-			}
+		FrameCache checkpoints = videoDecoder.getCheckpoints();
+		if (frameInCurrent == next) {
+			swapCurrentWithFuture();
+		} else if (frameInPast == next) {
+			swapPastWithFuture();
+		} else if (frameInFuture != next && checkpoints != null && checkpoints.contains(next)) {
+			if (frameInFuture == previous)
+				swapPastWithFuture();
+			future.copyFrom(checkpoints.get(next));
+			frameInFuture = next;
+		}
+
+		// a stream can begin with B pictures predicted backward only
+		if (previous != -1) {
+			decodeIOrP(previous);
+			swapCurrentWithPast();
 		}
+		if (frameInFuture != next) {
+			decodeIOrP(next);
+			swapCurrentWithFuture();
+		}
+		decode(frame);
 	}
 
+	/**
+	 * Decodes a D picture into the current buffer. D pictures hold only the
+	 * DC coefficients of intra coded macroblocks, and no picture is
+	 * predicted from them, so they need no other picture.
+	 * 
+	 * @param frame
+	 *            the frame to decode
+	 */
 	private void decodeD(int frame) throws IOException, MpegException {
+		if (frameInPast == frame)
+			swapCurrentWithPast();
+		else if (frameInFuture == frame)
+			swapCurrentWithFuture();
+		else
+			decode(frame);
 	}
 
 	public void resetDctDcPast() {
@@ -333,86 +547,29 @@ class DecoderState extends ParserState {
 		past_intra_address = newValue;
 	}
 
-	public int[] getCurrentYCbCr() throws IOException, MpegException {
-		return currentYCbCr;
-	}
-
-	public void setCurrentY(int index, int newY) {
-		int pixel = currentYCbCr[index] & 0xFF00FFFF;
-		pixel |= ((newY << 16) & 0x00FF0000);
-		currentYCbCr[index] = pixel;
-	}
-
-	public void setCurrentCb(int index, int newCb) {
-		int pixel = currentYCbCr[index] & 0xFFFF00FF;
-		pixel |= ((newCb << 8) & 0x0000FF00);
-		currentYCbCr[index] = pixel;
-	}
-
-	public void setCurrentCr(int index, int newCr) {
-		int pixel = currentYCbCr[index] & 0xFFFFFF00;
-		pixel |= (newCr & 0x000000FF);
-		currentYCbCr[index] = pixel;
-	}
-
-	public void setCurrentY(int row, int col, int newY) throws IOException, MpegException {
-		setCurrentY(row * getFrameWidth() + col, newY);
+	public FrameBuffer getCurrentFrameBuffer() {
+		return current;
 	}
 
-	public void setCurrentCb(int row, int col, int newCb) throws IOException, MpegException {
-		setCurrentCb(row * getFrameWidth() + col, newCb);
+	public void setCurrentY(int row, int col, int newY) {
+		current.getY()[row * current.getWidth() + col] = (byte) newY;
 	}
 
-	public void setCurrentCr(int row, int col, int newCr) throws IOException, MpegException {
-		setCurrentCr(row * getFrameWidth() + col, newCr);
+	// Cb and Cr are addressed in chroma samples, which cover 2x2 pels
+	public void setCurrentCb(int row, int col, int newCb) {
+		current.getCb()[row * current.getChromaWidth() + col] = (byte) newCb;
 	}
 
-	public int getPastY(int index) {
-		return ((pastYCbCr[index] >>> 16) & 0x000000FF);
+	public void setCurrentCr(int row, int col, int newCr) {
+		current.getCr()[row * current.getChromaWidth() + col] = (byte) newCr;
 	}
 
-	public int getPastCb(int index) {
-		return ((pastYCbCr[index] >>> 8) & 0x000000FF);
+	public FrameBuffer getPastFrameBuffer() {
+		return past;
 	}
 
-	public int getPastCr(int index) {
-		return (pastYCbCr[index] & 0x000000FF);
-	}
-
-	public int getPastY(int row, int col) throws IOException, MpegException {
-		return getPastY(row * getFrameWidth() + col);
-	}
-
-	public int getPastCb(int row, int col) throws IOException, MpegException {
-		return getPastCb(row * getFrameWidth() + col);
-	}
-
-	public int getPastCr(int row, int col) throws IOException, MpegException {
-		return getPastCr(row * getFrameWidth() + col);
-	}
-
-	public int getFutureY(int index) {
-		return ((futureYCbCr[index] >>> 16) & 0x000000FF);
-	}
-
-	public int getFutureCb(int index) {
-		return ((futureYCbCr[index] >>> 8) & 0x000000FF);
-	}
-
-	public int getFutureCr(int index) {
-		return (futureYCbCr[index] & 0x000000FF);
-	}
-
-	public int getFutureY(int row, int col) throws IOException, MpegException {
-		return getFutureY(row * getFrameWidth() + col);
-	}
-
-	public int getFutureCb(int row, int col) throws IOException, MpegException {
-		return getFutureCb(row * getFrameWidth() + col);
-	}
-
-	public int getFutureCr(int row, int col) throws IOException, MpegException {
-		return getFutureCr(row * getFrameWidth() + col);
+	public FrameBuffer getFutureFrameBuffer() {
+		return future;
 	}
 
 	public void resetReconForPrev() {
@@ -439,6 +596,10 @@ class DecoderState extends ParserState {
 		return macroblock.getReconDownBack();
 	}
 
+	public boolean getReferenceIDCT() {
+		return videoDecoder.isReferenceIDCT();
+	}
+
 	public boolean getFullPelForwardVector() {
 		return picture.getFullPelForwardVector();
 	}
@@ -454,13 +615,7 @@ class DecoderState extends ParserState {
 	public void copyMacroblockFromPastToCurrent(int macroblock_address) throws IOException, MpegException {
 		int mb_row = macroblock_address / getMbWidth();
 		int mb_column = macroblock_address % getMbWidth();
-		int pel_row = mb_row * 16;
-		int pel_col = mb_column * 16;
-		int frameWidth = getFrameWidth();
-		for (int i = 0; i < 16; i++) {
-			int pos = (pel_row + i) * frameWidth + pel_col;
-			System.arraycopy(pastYCbCr, pos, currentYCbCr, pos, 16);
-		}
+		current.copyMacroblock(past, mb_row, mb_column);
 	}
 
 	public void fillInSkippedBPictureMacroblock(int macroblock_address) throws IOException, MpegException {
@@ -492,9 +647,9 @@ class DecoderState extends ParserState {
 	}
 
 	public void swapPastWithFuture() {
-		int temp[] = pastYCbCr;
-		pastYCbCr = futureYCbCr;
-		futureYCbCr = temp;
+		FrameBuffer temp = past;
+		past = future;
+		future = temp;
 
 		int tempFrame = frameInPast;
 		frameInPast = frameInFuture;
@@ -502,9 +657,9 @@ class DecoderState extends ParserState {
 	}
 
 	public void swapCurrentWithPast() {
-		int temp[] = currentYCbCr;
-		currentYCbCr = pastYCbCr;
-		pastYCbCr = temp;
+		FrameBuffer temp = current;
+		current = past;
+		past = temp;
 
 		int tempFrame = frameInCurrent;
 		frameInCurrent = frameInPast;
@@ -512,9 +667,9 @@ class DecoderState extends ParserState {
 	}
 
 	public void swapCurrentWithFuture() {
-		int temp[] = currentYCbCr;
-		currentYCbCr = futureYCbCr;
-		futureYCbCr = temp;
+		FrameBuffer temp = current;
+		current = future;
+		future = temp;
 
 		int tempFrame = frameInCurrent;
 		frameInCurrent = frameInFuture;
@@ -0,0 +1,175 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.util.Arrays;
+
+/**
+ * A decoded picture in 4:2:0 planar form: a full size Y plane and two
+ * quarter size Cb and Cr planes, one unsigned byte per sample. The planes
+ * cover whole macroblocks, so they may be larger than the frame itself.
+ * Pictures decoded at reduced resolution have all three planes scaled down
+ * by a power of 2.
+ */
+class FrameBuffer {
+	private int shift; // log2 of the scale
+	private int width;
+	private int height;
+	private byte y[];
+	private byte cb[];
+	private byte cr[];
+
+	/**
+	 * Allocates a black frame.
+	 *
+	 * @param mbWidth
+	 *            width of the picture in macroblocks
+	 * @param mbHeight
+	 *            height of the picture in macroblocks
+	 */
+	public FrameBuffer(int mbWidth, int mbHeight) {
+		this(mbWidth, mbHeight, 0);
+	}
+
+	/**
+	 * Allocates a black frame at reduced resolution.
+	 *
+	 * @param mbWidth
+	 *            width of the picture in macroblocks
+	 * @param mbHeight
+	 *            height of the picture in macroblocks
+	 * @param shift
+	 *            log2 of the scale, from 0 (full size) to 3 (1/8 size, 2x2
+	 *            luminance samples per macroblock)
+	 */
+	public FrameBuffer(int mbWidth, int mbHeight, int shift) {
+		this.shift = shift;
+		width = (mbWidth * 16) >> shift;
+		height = (mbHeight * 16) >> shift;
+		y = new byte[width * height];
+		cb = new byte[(width / 2) * (height / 2)];
+		cr = new byte[(width / 2) * (height / 2)];
+		clear();
+	}
+
+	/**
+	 * Allocates a black frame of the same size as another.
+	 *
+	 * @param other
+	 *            the frame to match
+	 */
+	public FrameBuffer(FrameBuffer other) {
+		this(other.width / (16 >> other.shift), other.height / (16 >> other.shift), other.shift);
+	}
+
+	/**
+	 * Sets every pel to black.
+	 */
+	public void clear() {
+		Arrays.fill(y, (byte) 0x10);
+		Arrays.fill(cb, (byte) 0x80);
+		Arrays.fill(cr, (byte) 0x80);
+	}
+
+	/**
+	 * @return log2 of the scale of the planes: 0 at full size
+	 */
+	public int getScaleShift() {
+		return shift;
+	}
+
+	/**
+	 * @return width of the Y plane, which is also its row stride
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return height of the Y plane
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * @return width of the Cb and Cr planes, which is also their row stride
+	 */
+	public int getChromaWidth() {
+		return width / 2;
+	}
+
+	/**
+	 * @return height of the Cb and Cr planes
+	 */
+	public int getChromaHeight() {
+		return height / 2;
+	}
+
+	public byte[] getY() {
+		return y;
+	}
+
+	public byte[] getCb() {
+		return cb;
+	}
+
+	public byte[] getCr() {
+		return cr;
+	}
+
+	/**
+	 * @return number of bytes in the three planes
+	 */
+	public long getSize() {
+		return (long) y.length + cb.length + cr.length;
+	}
+
+	/**
+	 * Copies every sample from another frame of the same size.
+	 *
+	 * @param source
+	 *            the frame to copy from
+	 */
+	public void copyFrom(FrameBuffer source) {
+		System.arraycopy(source.y, 0, y, 0, y.length);
+		System.arraycopy(source.cb, 0, cb, 0, cb.length);
+		System.arraycopy(source.cr, 0, cr, 0, cr.length);
+	}
+
+	/**
+	 * Copies one macroblock from another frame of the same size.
+	 *
+	 * @param source
+	 *            the frame to copy from
+	 * @param mb_row
+	 *            macroblock row
+	 * @param mb_column
+	 *            macroblock column
+	 */
+	public void copyMacroblock(FrameBuffer source, int mb_row, int mb_column) {
+		int size = 16 >> shift;
+		int pos = (mb_row * size) * width + mb_column * size;
+		for (int i = 0; i < size; i++, pos += width) {
+			System.arraycopy(source.y, pos, y, pos, size);
+		}
+
+		int chromaWidth = width / 2;
+		size >>= 1;
+		pos = (mb_row * size) * chromaWidth + mb_column * size;
+		for (int i = 0; i < size; i++, pos += chromaWidth) {
+			System.arraycopy(source.cb, pos, cb, pos, size);
+			System.arraycopy(source.cr, pos, cr, pos, size);
+		}
+	}
+}
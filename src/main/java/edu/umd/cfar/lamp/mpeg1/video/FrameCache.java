@@ -0,0 +1,114 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Copies of decoded frames, by frame number, within a budget of bytes. When
+ * the budget is exceeded the least recently used frames are evicted, and the
+ * buffer of the last one evicted is reused for the next copy.
+ */
+class FrameCache {
+	// in access order, least recently used first
+	private final LinkedHashMap<Integer, FrameBuffer> frames = new LinkedHashMap<Integer, FrameBuffer>(16, 0.75f, true);
+	private long maxBytes;
+	private long bytes = 0;
+	private FrameBuffer spare = null;
+
+	/**
+	 * @param maxBytes
+	 *            the most bytes of samples to hold
+	 */
+	public FrameCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Changes the budget, evicting frames if it shrinks.
+	 *
+	 * @param maxBytes
+	 *            the most bytes of samples to hold
+	 */
+	public void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+		evict();
+	}
+
+	/**
+	 * Gets a frame, marking it as the most recently used.
+	 *
+	 * @param frame
+	 *            the frame number
+	 * @return the cached copy, which must not be modified, or
+	 *         <code>null</code>
+	 */
+	public FrameBuffer get(int frame) {
+		return frames.get(frame);
+	}
+
+	/**
+	 * Checks for a frame without marking it as used.
+	 *
+	 * @param frame
+	 *            the frame number
+	 * @return whether the frame is cached
+	 */
+	public boolean contains(int frame) {
+		return frames.containsKey(frame);
+	}
+
+	/**
+	 * Stores a copy of a frame, unless it alone is larger than the budget.
+	 *
+	 * @param frame
+	 *            the frame number
+	 * @param source
+	 *            the decoded frame
+	 */
+	public void put(int frame, FrameBuffer source) {
+		if (source.getSize() > maxBytes || frames.containsKey(frame))
+			return;
+
+		FrameBuffer copy = spare;
+		spare = null;
+		if (copy == null || copy.getWidth() != source.getWidth() || copy.getHeight() != source.getHeight())
+			copy = new FrameBuffer(source);
+		copy.copyFrom(source);
+
+		frames.put(frame, copy);
+		bytes += copy.getSize();
+		evict();
+	}
+
+	public void clear() {
+		frames.clear();
+		bytes = 0;
+		spare = null;
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<Integer, FrameBuffer>> i = frames.entrySet().iterator();
+		while (bytes > maxBytes && i.hasNext()) {
+			spare = i.next().getValue();
+			i.remove();
+			bytes -= spare.getSize();
+		}
+	}
+}
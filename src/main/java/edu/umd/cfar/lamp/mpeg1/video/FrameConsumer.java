@@ -0,0 +1,41 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.io.IOException;
+
+import edu.umd.cfar.lamp.mpeg1.MpegException;
+
+/**
+ * Receives decoded frames, in display order, from
+ * {@link VideoDecoder#decodeRange(int, int, FrameConsumer)} or
+ * {@link VideoDecoder#decodeDCImages(FrameConsumer)}.
+ */
+public interface FrameConsumer {
+	/**
+	 * Receives one frame. Frames are delivered one at a time, on the thread
+	 * that started decoding.
+	 *
+	 * @param frame
+	 *            the (0-based) frame number
+	 * @param pixels
+	 *            rgb values of the frame, row by row, as returned by
+	 *            {@link VideoDecoder#getRawPixels()}, at the scale decoded
+	 *            at; the array belongs to the consumer
+	 * @throws IOException
+	 * @throws MpegException
+	 *             stops the decoding, and is thrown again by
+	 *             <code>decodeRange</code>
+	 */
+	public void frameDecoded(int frame, int pixels[]) throws IOException, MpegException;
+}
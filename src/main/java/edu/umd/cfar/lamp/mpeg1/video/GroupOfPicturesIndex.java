@@ -56,6 +56,20 @@ public class GroupOfPicturesIndex {
 		}
 	}
 
+	/**
+	 * @param n
+	 *            the frame
+	 * @return the number of bytes of the (zero-based) <code>n</code>th
+	 *         picture (frame) in this Group Of Pictures (in display order).
+	 */
+	public long getSizeOfPicture(int n) throws FrameNotFoundException {
+		try {
+			return getElementsInDisplayOrder().get(n).getDataSize();
+		} catch (IndexOutOfBoundsException e) {
+			throw new FrameNotFoundException("Picture " + n + " not in " + this);
+		}
+	}
+
 	public int getLastIOrPPicture(int n) throws FrameNotFoundException {
 		List<GroupOfPicturesIndexElement> codingOrder = getElementsInCodingOrder();
 
@@ -85,6 +99,38 @@ public class GroupOfPicturesIndex {
 		throw new FrameNotFoundException();
 	}
 
+	/**
+	 * @param n
+	 *            the picture, in display order
+	 * @return the last I picture at or before <code>n</code>, in display
+	 *         order
+	 */
+	public int getIPictureAtOrBefore(int n) throws FrameNotFoundException {
+		List<GroupOfPicturesIndexElement> displayOrder = getElementsInDisplayOrder();
+		for (int i = Math.min(n, displayOrder.size() - 1); i >= 0; i--) {
+			if (displayOrder.get(i).getType() == PictureCodingTypes.TYPE_I)
+				return i;
+		}
+
+		throw new FrameNotFoundException();
+	}
+
+	/**
+	 * @param n
+	 *            the picture, in display order
+	 * @return the first I picture at or after <code>n</code>, in display
+	 *         order
+	 */
+	public int getIPictureAtOrAfter(int n) throws FrameNotFoundException {
+		List<GroupOfPicturesIndexElement> displayOrder = getElementsInDisplayOrder();
+		for (int i = Math.max(n, 0); i < displayOrder.size(); i++) {
+			if (displayOrder.get(i).getType() == PictureCodingTypes.TYPE_I)
+				return i;
+		}
+
+		throw new FrameNotFoundException();
+	}
+
 	public long getPositionOfPictureInCodingOrder(int n) throws FrameNotFoundException {
 		try {
 			return getElementsInCodingOrder().get(n).getStartPosition();
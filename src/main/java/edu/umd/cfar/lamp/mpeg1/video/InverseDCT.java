@@ -0,0 +1,410 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.util.Arrays;
+
+/**
+ * Inverse DCT of an 8x8 block of reconstructed DCT coefficients. All
+ * transforms work in place: the coefficients <code>block[v][u]</code> are
+ * replaced by the pel differences <code>block[y][x]</code>.
+ *
+ * The fast transforms are a separable row/column Chen-Wang transform in
+ * integer arithmetic, which meets the accuracy requirements of IEEE 1180.
+ * For coefficients in [-2048, 2047] every product fits in an int except the
+ * multiplies by 181 (256 / sqrt(2)) in the third stage, which are done in
+ * long arithmetic. The double precision matrix product is kept as a
+ * reference.
+ *
+ * For decoding at reduced resolution, the scaled transforms take only the
+ * top left NxN coefficients, with N = 4, 2 or 1, and give an NxN block of
+ * pel differences, each about the average of the 8/N x 8/N pels it covers.
+ * They are in integer arithmetic too, and every product fits in an int.
+ */
+class InverseDCT {
+	// 2048 * sqrt(2) * cos(k * pi / 16)
+	private static final int W1 = 2841;
+	private static final int W2 = 2676;
+	private static final int W3 = 2408;
+	private static final int W5 = 1609;
+	private static final int W6 = 1108;
+	private static final int W7 = 565;
+
+	// precalculated cosine matrix for the reference inverse DCT
+	private static final double c[][] = { { 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373, 0.35355339059327373 },
+			{ 0.49039264020161520, 0.41573480615127260, 0.27778511650980114, 0.09754516100806417, -0.09754516100806410, -0.27778511650980100, -0.41573480615127270, -0.49039264020161520 },
+			{ 0.46193976625564337, 0.19134171618254492, -0.19134171618254486, -0.46193976625564337, -0.46193976625564340, -0.19134171618254517, 0.19134171618254500, 0.46193976625564326 },
+			{ 0.41573480615127260, -0.09754516100806410, -0.49039264020161520, -0.27778511650980110, 0.27778511650980090, 0.49039264020161520, 0.09754516100806439, -0.41573480615127256 },
+			{ 0.35355339059327380, -0.35355339059327373, -0.35355339059327384, 0.35355339059327370, 0.35355339059327384, -0.35355339059327334, -0.35355339059327356, 0.35355339059327330 },
+			{ 0.27778511650980114, -0.49039264020161520, 0.09754516100806415, 0.41573480615127280, -0.41573480615127256, -0.09754516100806401, 0.49039264020161530, -0.27778511650980076 },
+			{ 0.19134171618254492, -0.46193976625564340, 0.46193976625564326, -0.19134171618254495, -0.19134171618254528, 0.46193976625564337, -0.46193976625564320, 0.19134171618254478 },
+			{ 0.09754516100806417, -0.27778511650980110, 0.41573480615127280, -0.49039264020161530, 0.49039264020161520, -0.41573480615127250, 0.27778511650980076, -0.09754516100806429 } };
+
+	// temporary matrix for the reference inverse DCT
+	private double temp[][] = new double[8][8];
+
+	/**
+	 * Transforms a block in which only the DC coefficient may be non-zero.
+	 * Gives the same result as {@link #transform(int[][])}.
+	 *
+	 * @param block
+	 *            the coefficients, replaced by the pel differences
+	 */
+	public void transformDC(int block[][]) {
+		int value = (block[0][0] + 4) >> 3;
+		for (int i = 0; i < 8; i++) {
+			Arrays.fill(block[i], value);
+		}
+	}
+
+	/**
+	 * Transforms a block in which only the top left 4x4 coefficients may be
+	 * non-zero. Gives the same result as {@link #transform(int[][])}.
+	 *
+	 * @param block
+	 *            the coefficients, replaced by the pel differences
+	 */
+	public void transform4x4(int block[][]) {
+		for (int i = 0; i < 4; i++) {
+			int row[] = block[i];
+			if ((row[1] | row[2] | row[3]) == 0) {
+				int dc = row[0] << 3;
+				row[0] = row[1] = row[2] = row[3] = row[4] = row[5] = row[6] = row[7] = dc;
+				continue;
+			}
+
+			int x0 = (row[0] << 11) + 128; // for proper rounding in the fourth stage
+			int x3 = row[2];
+			int x4 = row[1];
+			int x7 = row[3];
+
+			// first stage
+			int x5 = W7 * x4;
+			x4 = W1 * x4;
+			int x6 = W3 * x7;
+			x7 = -W5 * x7;
+
+			// second stage
+			int x8 = x0;
+			int x2 = W6 * x3;
+			x3 = W2 * x3;
+			int x1 = x4 + x6;
+			x4 -= x6;
+			x6 = x5 + x7;
+			x5 -= x7;
+
+			// third stage
+			x7 = x8 + x3;
+			x8 -= x3;
+			x3 = x0 + x2;
+			x0 -= x2;
+			x2 = (int) ((181L * (x4 + x5) + 128) >> 8);
+			x4 = (int) ((181L * (x4 - x5) + 128) >> 8);
+
+			// fourth stage
+			row[0] = (x7 + x1) >> 8;
+			row[1] = (x3 + x2) >> 8;
+			row[2] = (x0 + x4) >> 8;
+			row[3] = (x8 + x6) >> 8;
+			row[4] = (x8 - x6) >> 8;
+			row[5] = (x0 - x4) >> 8;
+			row[6] = (x3 - x2) >> 8;
+			row[7] = (x7 - x1) >> 8;
+		}
+
+		for (int j = 0; j < 8; j++) {
+			if ((block[1][j] | block[2][j] | block[3][j]) == 0) {
+				int dc = (block[0][j] + 32) >> 6;
+				for (int i = 0; i < 8; i++)
+					block[i][j] = dc;
+				continue;
+			}
+
+			int x0 = (block[0][j] << 8) + 8192;
+			int x3 = block[2][j];
+			int x4 = block[1][j];
+			int x7 = block[3][j];
+
+			// first stage
+			int x5 = (W7 * x4 + 4) >> 3;
+			x4 = (W1 * x4 + 4) >> 3;
+			int x6 = (W3 * x7 + 4) >> 3;
+			x7 = (4 - W5 * x7) >> 3;
+
+			// second stage
+			int x8 = x0;
+			int x2 = (W6 * x3 + 4) >> 3;
+			x3 = (W2 * x3 + 4) >> 3;
+			int x1 = x4 + x6;
+			x4 -= x6;
+			x6 = x5 + x7;
+			x5 -= x7;
+
+			// third stage
+			x7 = x8 + x3;
+			x8 -= x3;
+			x3 = x0 + x2;
+			x0 -= x2;
+			x2 = (int) ((181L * (x4 + x5) + 128) >> 8);
+			x4 = (int) ((181L * (x4 - x5) + 128) >> 8);
+
+			// fourth stage
+			block[0][j] = (x7 + x1) >> 14;
+			block[1][j] = (x3 + x2) >> 14;
+			block[2][j] = (x0 + x4) >> 14;
+			block[3][j] = (x8 + x6) >> 14;
+			block[4][j] = (x8 - x6) >> 14;
+			block[5][j] = (x0 - x4) >> 14;
+			block[6][j] = (x3 - x2) >> 14;
+			block[7][j] = (x7 - x1) >> 14;
+		}
+	}
+
+	/**
+	 * Transforms a block with the fast integer inverse DCT.
+	 *
+	 * @param block
+	 *            the coefficients, replaced by the pel differences
+	 */
+	public void transform(int block[][]) {
+		for (int i = 0; i < 8; i++) {
+			int row[] = block[i];
+			int x1 = row[4] << 11;
+			int x2 = row[6];
+			int x3 = row[2];
+			int x4 = row[1];
+			int x5 = row[7];
+			int x6 = row[5];
+			int x7 = row[3];
+			if ((x1 | x2 | x3 | x4 | x5 | x6 | x7) == 0) {
+				int dc = row[0] << 3;
+				row[0] = row[1] = row[2] = row[3] = row[4] = row[5] = row[6] = row[7] = dc;
+				continue;
+			}
+
+			int x0 = (row[0] << 11) + 128; // for proper rounding in the fourth stage
+
+			// first stage
+			int x8 = W7 * (x4 + x5);
+			x4 = x8 + (W1 - W7) * x4;
+			x5 = x8 - (W1 + W7) * x5;
+			x8 = W3 * (x6 + x7);
+			x6 = x8 - (W3 - W5) * x6;
+			x7 = x8 - (W3 + W5) * x7;
+
+			// second stage
+			x8 = x0 + x1;
+			x0 -= x1;
+			x1 = W6 * (x3 + x2);
+			x2 = x1 - (W2 + W6) * x2;
+			x3 = x1 + (W2 - W6) * x3;
+			x1 = x4 + x6;
+			x4 -= x6;
+			x6 = x5 + x7;
+			x5 -= x7;
+
+			// third stage
+			x7 = x8 + x3;
+			x8 -= x3;
+			x3 = x0 + x2;
+			x0 -= x2;
+			x2 = (int) ((181L * (x4 + x5) + 128) >> 8);
+			x4 = (int) ((181L * (x4 - x5) + 128) >> 8);
+
+			// fourth stage
+			row[0] = (x7 + x1) >> 8;
+			row[1] = (x3 + x2) >> 8;
+			row[2] = (x0 + x4) >> 8;
+			row[3] = (x8 + x6) >> 8;
+			row[4] = (x8 - x6) >> 8;
+			row[5] = (x0 - x4) >> 8;
+			row[6] = (x3 - x2) >> 8;
+			row[7] = (x7 - x1) >> 8;
+		}
+
+		for (int j = 0; j < 8; j++) {
+			int x1 = block[4][j] << 8;
+			int x2 = block[6][j];
+			int x3 = block[2][j];
+			int x4 = block[1][j];
+			int x5 = block[7][j];
+			int x6 = block[5][j];
+			int x7 = block[3][j];
+			if ((x1 | x2 | x3 | x4 | x5 | x6 | x7) == 0) {
+				int dc = (block[0][j] + 32) >> 6;
+				for (int i = 0; i < 8; i++)
+					block[i][j] = dc;
+				continue;
+			}
+
+			int x0 = (block[0][j] << 8) + 8192;
+
+			// first stage
+			int x8 = W7 * (x4 + x5) + 4;
+			x4 = (x8 + (W1 - W7) * x4) >> 3;
+			x5 = (x8 - (W1 + W7) * x5) >> 3;
+			x8 = W3 * (x6 + x7) + 4;
+			x6 = (x8 - (W3 - W5) * x6) >> 3;
+			x7 = (x8 - (W3 + W5) * x7) >> 3;
+
+			// second stage
+			x8 = x0 + x1;
+			x0 -= x1;
+			x1 = W6 * (x3 + x2) + 4;
+			x2 = (x1 - (W2 + W6) * x2) >> 3;
+			x3 = (x1 + (W2 - W6) * x3) >> 3;
+			x1 = x4 + x6;
+			x4 -= x6;
+			x6 = x5 + x7;
+			x5 -= x7;
+
+			// third stage
+			x7 = x8 + x3;
+			x8 -= x3;
+			x3 = x0 + x2;
+			x0 -= x2;
+			x2 = (int) ((181L * (x4 + x5) + 128) >> 8);
+			x4 = (int) ((181L * (x4 - x5) + 128) >> 8);
+
+			// fourth stage
+			block[0][j] = (x7 + x1) >> 14;
+			block[1][j] = (x3 + x2) >> 14;
+			block[2][j] = (x0 + x4) >> 14;
+			block[3][j] = (x8 + x6) >> 14;
+			block[4][j] = (x8 - x6) >> 14;
+			block[5][j] = (x0 - x4) >> 14;
+			block[6][j] = (x3 - x2) >> 14;
+			block[7][j] = (x7 - x1) >> 14;
+		}
+	}
+
+	/**
+	 * Transforms the top left NxN coefficients of a block with an N point
+	 * inverse DCT, scaled by N/8 so that the pel differences keep the level
+	 * of the full transform. With N = 1 this is the DC term divided by 8.
+	 *
+	 * @param block
+	 *            the coefficients, whose top left NxN are replaced by the pel
+	 *            differences
+	 * @param shift
+	 *            log2 of the scale, from 1 (N = 4) to 3 (N = 1)
+	 */
+	public void transformScaled(int block[][], int shift) {
+		switch (shift) {
+			case 1:
+				transformScaled4x4(block);
+				break;
+			case 2:
+				transformScaled2x2(block);
+				break;
+			default:
+				block[0][0] = (block[0][0] + 4) >> 3;
+				break;
+		}
+	}
+
+	/**
+	 * The 4 point transform for {@link #transformScaled(int[][], int)}: a
+	 * Chen-Wang butterfly, whose odd part has the constants W2 and W6 of the
+	 * full transform. The rows keep 4 more bits for the columns.
+	 */
+	private static void transformScaled4x4(int block[][]) {
+		for (int i = 0; i < 4; i++) {
+			int row[] = block[i];
+			if ((row[1] | row[2] | row[3]) == 0) {
+				int dc = row[0] << 3;
+				row[0] = row[1] = row[2] = row[3] = dc;
+				continue;
+			}
+
+			int x0 = ((row[0] + row[2]) << 11) + 128; // for proper rounding
+			int x1 = ((row[0] - row[2]) << 11) + 128;
+			int x2 = W2 * row[1] + W6 * row[3];
+			int x3 = W6 * row[1] - W2 * row[3];
+
+			row[0] = (x0 + x2) >> 8;
+			row[1] = (x1 + x3) >> 8;
+			row[2] = (x1 - x3) >> 8;
+			row[3] = (x0 - x2) >> 8;
+		}
+
+		for (int j = 0; j < 4; j++) {
+			if ((block[1][j] | block[2][j] | block[3][j]) == 0) {
+				int dc = (block[0][j] + 32) >> 6;
+				block[0][j] = block[1][j] = block[2][j] = block[3][j] = dc;
+				continue;
+			}
+
+			int x0 = ((block[0][j] + block[2][j]) << 11) + (1 << 16);
+			int x1 = ((block[0][j] - block[2][j]) << 11) + (1 << 16);
+			int x2 = W2 * block[1][j] + W6 * block[3][j];
+			int x3 = W6 * block[1][j] - W2 * block[3][j];
+
+			block[0][j] = (x0 + x2) >> 17;
+			block[1][j] = (x1 + x3) >> 17;
+			block[2][j] = (x1 - x3) >> 17;
+			block[3][j] = (x0 - x2) >> 17;
+		}
+	}
+
+	/**
+	 * The 2 point transform for {@link #transformScaled(int[][], int)}: each
+	 * pel difference is the sum of the four coefficients, with the signs of
+	 * their basis functions at that pel, divided by 8.
+	 */
+	private static void transformScaled2x2(int block[][]) {
+		int a = block[0][0] + block[0][1];
+		int b = block[0][0] - block[0][1];
+		int c = block[1][0] + block[1][1];
+		int d = block[1][0] - block[1][1];
+
+		block[0][0] = (a + c + 4) >> 3;
+		block[0][1] = (b + d + 4) >> 3;
+		block[1][0] = (a - c + 4) >> 3;
+		block[1][1] = (b - d + 4) >> 3;
+	}
+
+	/**
+	 * Transforms a block with the double precision matrix product, rounding
+	 * each pel difference to the nearest integer.
+	 *
+	 * @param block
+	 *            the coefficients, replaced by the pel differences
+	 */
+	public void referenceTransform(int block[][]) {
+		// inverse DCT implementation modified from one cribbed from Stephen Manley (http://www.nyx.net/~smanley/)
+		double temp1;
+
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				temp[i][j] = 0.0;
+
+				for (int k = 0; k < 8; k++) {
+					temp[i][j] += block[i][k] * c[k][j];
+				}
+			}
+		}
+
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				temp1 = 0.0;
+
+				for (int k = 0; k < 8; k++) {
+					temp1 += c[k][i] * temp[k][j];
+				}
+
+				block[i][j] = (int) Math.round(temp1);
+			}
+		}
+	}
+}
@@ -47,22 +47,8 @@ class Macroblock implements Decodable {
 
 	@Override
 	public void parse(Bitstream bitstream, ParserState parserState) throws IOException {
-		while (bitstream.nextbits(11) == 15) // 0000.0001.111
-		{
-			if (bitstream.getbits(11) != 15)
-				throw new ParsingException("Expected macroblock_stuffing not found.");
-		}
-
-		int macroblock_address_increment = 0;
-		while (bitstream.nextbits(11) == 8) // 0000.0001.000
-		{
-			if (bitstream.getbits(11) != 8)
-				throw new ParsingException("Expected macroblock_escape not found.");
-			macroblock_address_increment += 33;
-		}
-
-		mai.parse(bitstream);
-		macroblock_address_increment += mai.getValue();
+		mai.parse(bitstream); // also consumes macroblock_stuffing and macroblock_escape
+		int macroblock_address_increment = mai.getValue();
 
 		switch (parserState.getPictureCodingType()) {
 			case PictureCodingTypes.TYPE_I:
@@ -156,20 +142,8 @@ class Macroblock implements Decodable {
 		int backward_f_code = decoderState.getBackwardFCode();
 		int forward_f_code = decoderState.getForwardFCode();
 
-		while (bitstream.nextbits(11) == 15) // 0000.0001.111 (stuffing)
-		{
-			bitstream.skipbits(11);
-		}
-
-		int macroblock_address_increment = 0;
-		while (bitstream.nextbits(11) == 8) // 0000.0001.000 (macroblock_escape)
-		{
-			bitstream.skipbits(11);
-			macroblock_address_increment += 33;
-		}
-
-		mai.parse(bitstream);
-		macroblock_address_increment += mai.getValue();
+		mai.parse(bitstream); // also consumes macroblock_stuffing and macroblock_escape
+		int macroblock_address_increment = mai.getValue();
 
 		int previous_macroblock_address = decoderState.getPreviousMacroblockAddress();
 
@@ -435,7 +409,8 @@ class Macroblock implements Decodable {
 		}
 
 		if (picture_coding_type == PictureCodingTypes.TYPE_D) {
-			bitstream.skipbits(1);
+			if (bitstream.getbits(1) != 1)
+				throw new ParsingException("Expected end_of_macroblock not found.");
 		}
 
 		decoderState.setPreviousMacroblockAddress(macroblock_address);
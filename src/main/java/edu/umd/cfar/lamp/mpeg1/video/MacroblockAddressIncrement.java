@@ -16,173 +16,71 @@ import java.io.IOException;
 
 import edu.columbia.ee.flavor.Bitstream;
 import edu.umd.cfar.lamp.mpeg1.Parsable;
-import edu.umd.cfar.lamp.mpeg1.ParsingException;
 
+/**
+ * Corresponds to macroblock_address_increment in ISO/IEC 11172-2 (Table B.1)
+ */
 class MacroblockAddressIncrement implements Parsable {
+	private static final int MACROBLOCK_STUFFING = -1;
+	private static final int MACROBLOCK_ESCAPE = -2;
+
+	// { code, length, macroblock_address_increment }
+	private static final VlcTable table = new VlcTable("MacroblockAddressIncrement", 11, new int[][] {
+			{ 0x1, 1, 1 }, // 1
+			{ 0x3, 3, 2 }, // 011
+			{ 0x2, 3, 3 }, // 010
+			{ 0x3, 4, 4 }, // 0011
+			{ 0x2, 4, 5 }, // 0010
+			{ 0x3, 5, 6 }, // 0001.1
+			{ 0x2, 5, 7 }, // 0001.0
+			{ 0x7, 7, 8 }, // 0000.111
+			{ 0x6, 7, 9 }, // 0000.110
+			{ 0xB, 8, 10 }, // 0000.1011
+			{ 0xA, 8, 11 }, // 0000.1010
+			{ 0x9, 8, 12 }, // 0000.1001
+			{ 0x8, 8, 13 }, // 0000.1000
+			{ 0x7, 8, 14 }, // 0000.0111
+			{ 0x6, 8, 15 }, // 0000.0110
+			{ 0x17, 10, 16 }, // 0000.0101.11
+			{ 0x16, 10, 17 }, // 0000.0101.10
+			{ 0x15, 10, 18 }, // 0000.0101.01
+			{ 0x14, 10, 19 }, // 0000.0101.00
+			{ 0x13, 10, 20 }, // 0000.0100.11
+			{ 0x12, 10, 21 }, // 0000.0100.10
+			{ 0x23, 11, 22 }, // 0000.0100.011
+			{ 0x22, 11, 23 }, // 0000.0100.010
+			{ 0x21, 11, 24 }, // 0000.0100.001
+			{ 0x20, 11, 25 }, // 0000.0100.000
+			{ 0x1F, 11, 26 }, // 0000.0011.111
+			{ 0x1E, 11, 27 }, // 0000.0011.110
+			{ 0x1D, 11, 28 }, // 0000.0011.101
+			{ 0x1C, 11, 29 }, // 0000.0011.100
+			{ 0x1B, 11, 30 }, // 0000.0011.011
+			{ 0x1A, 11, 31 }, // 0000.0011.010
+			{ 0x19, 11, 32 }, // 0000.0011.001
+			{ 0x18, 11, 33 }, // 0000.0011.000
+			{ 0xF, 11, MACROBLOCK_STUFFING }, // 0000.0001.111
+			{ 0x8, 11, MACROBLOCK_ESCAPE } // 0000.0001.000
+	});
+
 	private int value = 0;
 
+	/**
+	 * Parses the macroblock_address_increment, along with any
+	 * macroblock_stuffing and macroblock_escape codes preceding it.
+	 */
 	@Override
 	public void parse(Bitstream bitstream) throws IOException {
-		switch (bitstream.nextbits(1)) {
-			case 1:
-				bitstream.skipbits(1);
-				value = 1;
-				break;
-			default:
-				switch (bitstream.nextbits(3)) {
-					case 3:
-						bitstream.skipbits(3);
-						value = 2;
-						break;
-					case 2:
-						bitstream.skipbits(3);
-						value = 3;
-						break;
-					default:
-						switch (bitstream.nextbits(4)) {
-							case 3:
-								bitstream.skipbits(4);
-								value = 4;
-								break;
-							case 2:
-								bitstream.skipbits(4);
-								value = 5;
-								break;
-							default:
-								switch (bitstream.nextbits(5)) {
-									case 3:
-										bitstream.skipbits(5);
-										value = 6;
-										break;
-									case 2:
-										bitstream.skipbits(5);
-										value = 7;
-										break;
-									default:
-										switch (bitstream.nextbits(7)) {
-											case 7:
-												bitstream.skipbits(7);
-												value = 8;
-												break;
-											case 6:
-												bitstream.skipbits(7);
-												value = 9;
-												break;
-											default:
-												switch (bitstream.nextbits(8)) {
-													case 11:
-														bitstream.skipbits(8);
-														value = 10;
-														break;
-													case 10:
-														bitstream.skipbits(8);
-														value = 11;
-														break;
-													case 9:
-														bitstream.skipbits(8);
-														value = 12;
-														break;
-													case 8:
-														bitstream.skipbits(8);
-														value = 13;
-														break;
-													case 7:
-														bitstream.skipbits(8);
-														value = 14;
-														break;
-													case 6:
-														bitstream.skipbits(8);
-														value = 15;
-														break;
-													default:
-														switch (bitstream.nextbits(10)) {
-															case 23:
-																bitstream.skipbits(10);
-																value = 16;
-																break;
-															case 22:
-																bitstream.skipbits(10);
-																value = 17;
-																break;
-															case 21:
-																bitstream.skipbits(10);
-																value = 18;
-																break;
-															case 20:
-																bitstream.skipbits(10);
-																value = 19;
-																break;
-															case 19:
-																bitstream.skipbits(10);
-																value = 20;
-																break;
-															case 18:
-																bitstream.skipbits(10);
-																value = 21;
-																break;
-															default:
-																switch (bitstream.nextbits(11)) {
-																	case 35:
-																		bitstream.skipbits(11);
-																		value = 22;
-																		break;
-																	case 34:
-																		bitstream.skipbits(11);
-																		value = 23;
-																		break;
-																	case 33:
-																		bitstream.skipbits(11);
-																		value = 24;
-																		break;
-																	case 32:
-																		bitstream.skipbits(11);
-																		value = 25;
-																		break;
-																	case 31:
-																		bitstream.skipbits(11);
-																		value = 26;
-																		break;
-																	case 30:
-																		bitstream.skipbits(11);
-																		value = 27;
-																		break;
-																	case 29:
-																		bitstream.skipbits(11);
-																		value = 28;
-																		break;
-																	case 28:
-																		bitstream.skipbits(11);
-																		value = 29;
-																		break;
-																	case 27:
-																		bitstream.skipbits(11);
-																		value = 30;
-																		break;
-																	case 26:
-																		bitstream.skipbits(11);
-																		value = 31;
-																		break;
-																	case 25:
-																		bitstream.skipbits(11);
-																		value = 32;
-																		break;
-																	case 24:
-																		bitstream.skipbits(11);
-																		value = 33;
-																		break;
-																	default:
-																		throw new ParsingException("VLC decode for MacroblockAddressIncrement failed.");
-																}
-														}
-												}
-										}
-								}
-						}
-				}
+		int increment;
+		value = 0;
+		while ((increment = table.decode(bitstream)) < 0) {
+			if (increment == MACROBLOCK_ESCAPE)
+				value += 33;
 		}
+		value += increment;
 	}
 
 	public int getValue() {
 		return value;
 	}
-}
\ No newline at end of file
+}
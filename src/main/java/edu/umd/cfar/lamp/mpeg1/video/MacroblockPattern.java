@@ -16,287 +16,83 @@ import java.io.IOException;
 
 import edu.columbia.ee.flavor.Bitstream;
 import edu.umd.cfar.lamp.mpeg1.Parsable;
-import edu.umd.cfar.lamp.mpeg1.ParsingException;
 
+/**
+ * Corresponds to coded_block_pattern in ISO/IEC 11172-2 (Table B.3)
+ */
 class MacroblockPattern implements Parsable {
+	// { code, length, coded_block_pattern }
+	private static final VlcTable table = new VlcTable("MacroblockPattern", 9, new int[][] {
+			{ 0x7, 3, 60 }, // 111
+			{ 0xD, 4, 4 }, // 1101
+			{ 0xC, 4, 8 }, // 1100
+			{ 0xB, 4, 16 }, // 1011
+			{ 0xA, 4, 32 }, // 1010
+			{ 0x13, 5, 12 }, // 1001.1
+			{ 0x12, 5, 48 }, // 1001.0
+			{ 0x11, 5, 20 }, // 1000.1
+			{ 0x10, 5, 40 }, // 1000.0
+			{ 0xF, 5, 28 }, // 0111.1
+			{ 0xE, 5, 44 }, // 0111.0
+			{ 0xD, 5, 52 }, // 0110.1
+			{ 0xC, 5, 56 }, // 0110.0
+			{ 0xB, 5, 1 }, // 0101.1
+			{ 0xA, 5, 61 }, // 0101.0
+			{ 0x9, 5, 2 }, // 0100.1
+			{ 0x8, 5, 62 }, // 0100.0
+			{ 0xF, 6, 24 }, // 0011.11
+			{ 0xE, 6, 36 }, // 0011.10
+			{ 0xD, 6, 3 }, // 0011.01
+			{ 0xC, 6, 63 }, // 0011.00
+			{ 0x17, 7, 5 }, // 0010.111
+			{ 0x16, 7, 9 }, // 0010.110
+			{ 0x15, 7, 17 }, // 0010.101
+			{ 0x14, 7, 33 }, // 0010.100
+			{ 0x13, 7, 6 }, // 0010.011
+			{ 0x12, 7, 10 }, // 0010.010
+			{ 0x11, 7, 18 }, // 0010.001
+			{ 0x10, 7, 34 }, // 0010.000
+			{ 0x1F, 8, 7 }, // 0001.1111
+			{ 0x1E, 8, 11 }, // 0001.1110
+			{ 0x1D, 8, 19 }, // 0001.1101
+			{ 0x1C, 8, 35 }, // 0001.1100
+			{ 0x1B, 8, 13 }, // 0001.1011
+			{ 0x1A, 8, 49 }, // 0001.1010
+			{ 0x19, 8, 21 }, // 0001.1001
+			{ 0x18, 8, 41 }, // 0001.1000
+			{ 0x17, 8, 14 }, // 0001.0111
+			{ 0x16, 8, 50 }, // 0001.0110
+			{ 0x15, 8, 22 }, // 0001.0101
+			{ 0x14, 8, 42 }, // 0001.0100
+			{ 0x13, 8, 15 }, // 0001.0011
+			{ 0x12, 8, 51 }, // 0001.0010
+			{ 0x11, 8, 23 }, // 0001.0001
+			{ 0x10, 8, 43 }, // 0001.0000
+			{ 0xF, 8, 25 }, // 0000.1111
+			{ 0xE, 8, 37 }, // 0000.1110
+			{ 0xD, 8, 26 }, // 0000.1101
+			{ 0xC, 8, 38 }, // 0000.1100
+			{ 0xB, 8, 29 }, // 0000.1011
+			{ 0xA, 8, 45 }, // 0000.1010
+			{ 0x9, 8, 53 }, // 0000.1001
+			{ 0x8, 8, 57 }, // 0000.1000
+			{ 0x7, 8, 30 }, // 0000.0111
+			{ 0x6, 8, 46 }, // 0000.0110
+			{ 0x5, 8, 54 }, // 0000.0101
+			{ 0x4, 8, 58 }, // 0000.0100
+			{ 0x7, 9, 31 }, // 0000.0011.1
+			{ 0x6, 9, 47 }, // 0000.0011.0
+			{ 0x5, 9, 55 }, // 0000.0010.1
+			{ 0x4, 9, 59 }, // 0000.0010.0
+			{ 0x3, 9, 27 }, // 0000.0001.1
+			{ 0x2, 9, 39 } // 0000.0001.0
+	});
+
 	private int value = 0;
 
 	@Override
 	public void parse(Bitstream bitstream) throws IOException {
-		switch (bitstream.nextbits(3)) {
-			case 7:
-				bitstream.skipbits(3);
-				value = 60;
-				break;
-			default:
-				switch (bitstream.nextbits(4)) {
-					case 13:
-						bitstream.skipbits(4);
-						value = 4;
-						break;
-					case 12:
-						bitstream.skipbits(4);
-						value = 8;
-						break;
-					case 11:
-						bitstream.skipbits(4);
-						value = 16;
-						break;
-					case 10:
-						bitstream.skipbits(4);
-						value = 32;
-						break;
-					default:
-						switch (bitstream.nextbits(5)) {
-							case 19:
-								bitstream.skipbits(5);
-								value = 12;
-								break;
-							case 18:
-								bitstream.skipbits(5);
-								value = 48;
-								break;
-							case 17:
-								bitstream.skipbits(5);
-								value = 20;
-								break;
-							case 16:
-								bitstream.skipbits(5);
-								value = 40;
-								break;
-							case 15:
-								bitstream.skipbits(5);
-								value = 28;
-								break;
-							case 14:
-								bitstream.skipbits(5);
-								value = 44;
-								break;
-							case 13:
-								bitstream.skipbits(5);
-								value = 52;
-								break;
-							case 12:
-								bitstream.skipbits(5);
-								value = 56;
-								break;
-							case 11:
-								bitstream.skipbits(5);
-								value = 1;
-								break;
-							case 10:
-								bitstream.skipbits(5);
-								value = 61;
-								break;
-							case 9:
-								bitstream.skipbits(5);
-								value = 2;
-								break;
-							case 8:
-								bitstream.skipbits(5);
-								value = 62;
-								break;
-							default:
-								switch (bitstream.nextbits(6)) {
-									case 15:
-										bitstream.skipbits(6);
-										value = 24;
-										break;
-									case 14:
-										bitstream.skipbits(6);
-										value = 36;
-										break;
-									case 13:
-										bitstream.skipbits(6);
-										value = 3;
-										break;
-									case 12:
-										bitstream.skipbits(6);
-										value = 63;
-										break;
-									default:
-										switch (bitstream.nextbits(7)) {
-											case 23:
-												bitstream.skipbits(7);
-												value = 5;
-												break;
-											case 22:
-												bitstream.skipbits(7);
-												value = 9;
-												break;
-											case 21:
-												bitstream.skipbits(7);
-												value = 17;
-												break;
-											case 20:
-												bitstream.skipbits(7);
-												value = 33;
-												break;
-											case 19:
-												bitstream.skipbits(7);
-												value = 6;
-												break;
-											case 18:
-												bitstream.skipbits(7);
-												value = 10;
-												break;
-											case 17:
-												bitstream.skipbits(7);
-												value = 18;
-												break;
-											case 16:
-												bitstream.skipbits(7);
-												value = 34;
-												break;
-											default:
-												switch (bitstream.nextbits(8)) {
-													case 31:
-														bitstream.skipbits(8);
-														value = 7;
-														break;
-													case 30:
-														bitstream.skipbits(8);
-														value = 11;
-														break;
-													case 29:
-														bitstream.skipbits(8);
-														value = 19;
-														break;
-													case 28:
-														bitstream.skipbits(8);
-														value = 35;
-														break;
-													case 27:
-														bitstream.skipbits(8);
-														value = 13;
-														break;
-													case 26:
-														bitstream.skipbits(8);
-														value = 49;
-														break;
-													case 25:
-														bitstream.skipbits(8);
-														value = 21;
-														break;
-													case 24:
-														bitstream.skipbits(8);
-														value = 41;
-														break;
-													case 23:
-														bitstream.skipbits(8);
-														value = 14;
-														break;
-													case 22:
-														bitstream.skipbits(8);
-														value = 50;
-														break;
-													case 21:
-														bitstream.skipbits(8);
-														value = 22;
-														break;
-													case 20:
-														bitstream.skipbits(8);
-														value = 42;
-														break;
-													case 19:
-														bitstream.skipbits(8);
-														value = 15;
-														break;
-													case 18:
-														bitstream.skipbits(8);
-														value = 51;
-														break;
-													case 17:
-														bitstream.skipbits(8);
-														value = 23;
-														break;
-													case 16:
-														bitstream.skipbits(8);
-														value = 43;
-														break;
-													case 15:
-														bitstream.skipbits(8);
-														value = 25;
-														break;
-													case 14:
-														bitstream.skipbits(8);
-														value = 37;
-														break;
-													case 13:
-														bitstream.skipbits(8);
-														value = 26;
-														break;
-													case 12:
-														bitstream.skipbits(8);
-														value = 38;
-														break;
-													case 11:
-														bitstream.skipbits(8);
-														value = 29;
-														break;
-													case 10:
-														bitstream.skipbits(8);
-														value = 45;
-														break;
-													case 9:
-														bitstream.skipbits(8);
-														value = 53;
-														break;
-													case 8:
-														bitstream.skipbits(8);
-														value = 57;
-														break;
-													case 7:
-														bitstream.skipbits(8);
-														value = 30;
-														break;
-													case 6:
-														bitstream.skipbits(8);
-														value = 46;
-														break;
-													case 5:
-														bitstream.skipbits(8);
-														value = 54;
-														break;
-													case 4:
-														bitstream.skipbits(8);
-														value = 58;
-														break;
-													default:
-														switch (bitstream.nextbits(9)) {
-															case 7:
-																bitstream.skipbits(9);
-																value = 31;
-																break;
-															case 6:
-																bitstream.skipbits(9);
-																value = 47;
-																break;
-															case 5:
-																bitstream.skipbits(9);
-																value = 55;
-																break;
-															case 4:
-																bitstream.skipbits(9);
-																value = 59;
-																break;
-															case 3:
-																bitstream.skipbits(9);
-																value = 27;
-																break;
-															case 2:
-																bitstream.skipbits(9);
-																value = 39;
-																break;
-															default:
-																throw new ParsingException("VLC decode for MacroblockPattern failed.");
-														}
-												}
-										}
-								}
-						}
-				}
-		}
+		value = table.decode(bitstream);
 	}
 
 	public int getValue() {
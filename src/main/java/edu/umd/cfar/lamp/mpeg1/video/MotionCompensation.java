@@ -0,0 +1,250 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+/**
+ * Motion compensated prediction of 8x8 blocks (ISO/IEC 11172-2, 2.4.4.2
+ * and 2.4.4.3). There is one kernel for each combination of half-pel
+ * offsets, each either storing the prediction or averaging it with the
+ * prediction already in the block, as needed for bidirectionally
+ * predicted macroblocks. Kernels walk the reference plane row by row from
+ * a precomputed base offset.
+ */
+final class MotionCompensation {
+	private MotionCompensation() {
+	}
+
+	/**
+	 * Predicts an 8x8 luminance block.
+	 *
+	 * @param reference
+	 *            the frame to predict from
+	 * @param recon_right
+	 *            horizontal motion vector, in half pels
+	 * @param recon_down
+	 *            vertical motion vector, in half pels
+	 * @param pel_row
+	 *            top row of the block
+	 * @param pel_col
+	 *            left column of the block
+	 * @param pel
+	 *            the block to fill
+	 * @param average
+	 *            whether to average with the prediction already in
+	 *            <code>pel</code> instead of replacing it
+	 */
+	public static void predictLuminance(FrameBuffer reference, int recon_right, int recon_down, int pel_row, int pel_col, int pel[][], boolean average) {
+		int right = recon_right >> 1;
+		int down = recon_down >> 1;
+		boolean right_half = ((recon_right - (2 * right)) != 0);
+		boolean down_half = ((recon_down - (2 * down)) != 0);
+
+		int stride = reference.getWidth();
+		int offset = (pel_row + down) * stride + pel_col + right;
+		predict(reference.getY(), offset, stride, right_half, down_half, pel, average);
+	}
+
+	/**
+	 * Predicts an 8x8 chrominance block. The luminance motion vector is
+	 * halved, as the chrominance planes have half the resolution.
+	 *
+	 * @param reference
+	 *            the frame to predict from
+	 * @param plane
+	 *            the Cb or Cr plane of <code>reference</code>
+	 * @param recon_right
+	 *            horizontal luminance motion vector, in half pels
+	 * @param recon_down
+	 *            vertical luminance motion vector, in half pels
+	 * @param chroma_row
+	 *            top row of the block, in chrominance samples
+	 * @param chroma_col
+	 *            left column of the block, in chrominance samples
+	 * @param pel
+	 *            the block to fill
+	 * @param average
+	 *            whether to average with the prediction already in
+	 *            <code>pel</code> instead of replacing it
+	 */
+	public static void predictChrominance(FrameBuffer reference, byte plane[], int recon_right, int recon_down, int chroma_row, int chroma_col, int pel[][], boolean average) {
+		int right = (recon_right / 2) >> 1;
+		int down = (recon_down / 2) >> 1;
+		boolean right_half = ((recon_right / 2 - (2 * right)) != 0);
+		boolean down_half = ((recon_down / 2 - (2 * down)) != 0);
+
+		int stride = reference.getChromaWidth();
+		int offset = (chroma_row + down) * stride + chroma_col + right;
+		predict(plane, offset, stride, right_half, down_half, pel, average);
+	}
+
+	/**
+	 * Predicts a block of a frame decoded at reduced resolution. There is a
+	 * single kernel for all half-pel offsets, as the blocks are small.
+	 *
+	 * @param plane
+	 *            the plane of the reference frame
+	 * @param stride
+	 *            row stride of <code>plane</code>
+	 * @param vector_right
+	 *            horizontal motion vector, in half samples of the plane
+	 * @param vector_down
+	 *            vertical motion vector, in half samples of the plane
+	 * @param row
+	 *            top row of the block, in samples of the plane
+	 * @param col
+	 *            left column of the block, in samples of the plane
+	 * @param size
+	 *            width and height of the block
+	 * @param pel
+	 *            the block to fill, in its top left corner
+	 * @param average
+	 *            whether to average with the prediction already in
+	 *            <code>pel</code> instead of replacing it
+	 */
+	public static void predictScaled(byte plane[], int stride, int vector_right, int vector_down, int row, int col, int size, int pel[][], boolean average) {
+		int right = vector_right >> 1;
+		int down = vector_down >> 1;
+		int dx = (vector_right - (2 * right) != 0) ? 1 : 0;
+		int dy = (vector_down - (2 * down) != 0) ? stride : 0;
+
+		int offset = (row + down) * stride + col + right;
+		for (int i = 0; i < size; i++, offset += stride) {
+			int pelRow[] = pel[i];
+			for (int j = 0; j < size; j++) {
+				int p = offset + j;
+				// the samples coincide in pairs, or all four, unless both
+				// offsets are half-pel
+				int value = ((plane[p] & 0xFF) + (plane[p + dx] & 0xFF) + (plane[p + dy] & 0xFF) + (plane[p + dx + dy] & 0xFF) + 2) >> 2;
+				pelRow[j] = average ? (pelRow[j] + value + 1) >> 1 : value;
+			}
+		}
+	}
+
+	private static void predict(byte src[], int offset, int stride, boolean right_half, boolean down_half, int pel[][], boolean average) {
+		if (!right_half) {
+			if (!down_half) {
+				if (average)
+					averageFull(src, offset, stride, pel);
+				else
+					copyFull(src, offset, stride, pel);
+			} else {
+				if (average)
+					averageHalfDown(src, offset, stride, pel);
+				else
+					copyHalfDown(src, offset, stride, pel);
+			}
+		} else {
+			if (!down_half) {
+				if (average)
+					averageHalfRight(src, offset, stride, pel);
+				else
+					copyHalfRight(src, offset, stride, pel);
+			} else {
+				if (average)
+					averageHalfBoth(src, offset, stride, pel);
+				else
+					copyHalfBoth(src, offset, stride, pel);
+			}
+		}
+	}
+
+	// all sums below are non-negative, so the spec's "//" rounding is a shift
+
+	private static void copyFull(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			for (int j = 0; j < 8; j++) {
+				row[j] = src[offset + j] & 0xFF;
+			}
+		}
+	}
+
+	private static void copyHalfRight(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			int left = src[offset] & 0xFF;
+			for (int j = 0; j < 8; j++) {
+				int right = src[offset + j + 1] & 0xFF;
+				row[j] = (left + right + 1) >> 1;
+				left = right;
+			}
+		}
+	}
+
+	private static void copyHalfDown(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			int below = offset + stride;
+			for (int j = 0; j < 8; j++) {
+				row[j] = ((src[offset + j] & 0xFF) + (src[below + j] & 0xFF) + 1) >> 1;
+			}
+		}
+	}
+
+	private static void copyHalfBoth(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			int below = offset + stride;
+			int left = (src[offset] & 0xFF) + (src[below] & 0xFF);
+			for (int j = 0; j < 8; j++) {
+				int right = (src[offset + j + 1] & 0xFF) + (src[below + j + 1] & 0xFF);
+				row[j] = (left + right + 2) >> 2;
+				left = right;
+			}
+		}
+	}
+
+	private static void averageFull(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			for (int j = 0; j < 8; j++) {
+				row[j] = (row[j] + (src[offset + j] & 0xFF) + 1) >> 1;
+			}
+		}
+	}
+
+	private static void averageHalfRight(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			int left = src[offset] & 0xFF;
+			for (int j = 0; j < 8; j++) {
+				int right = src[offset + j + 1] & 0xFF;
+				row[j] = (row[j] + ((left + right + 1) >> 1) + 1) >> 1;
+				left = right;
+			}
+		}
+	}
+
+	private static void averageHalfDown(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			int below = offset + stride;
+			for (int j = 0; j < 8; j++) {
+				row[j] = (row[j] + (((src[offset + j] & 0xFF) + (src[below + j] & 0xFF) + 1) >> 1) + 1) >> 1;
+			}
+		}
+	}
+
+	private static void averageHalfBoth(byte src[], int offset, int stride, int pel[][]) {
+		for (int i = 0; i < 8; i++, offset += stride) {
+			int row[] = pel[i];
+			int below = offset + stride;
+			int left = (src[offset] & 0xFF) + (src[below] & 0xFF);
+			for (int j = 0; j < 8; j++) {
+				int right = (src[offset + j + 1] & 0xFF) + (src[below + j + 1] & 0xFF);
+				row[j] = (row[j] + ((left + right + 2) >> 2) + 1) >> 1;
+				left = right;
+			}
+		}
+	}
+}
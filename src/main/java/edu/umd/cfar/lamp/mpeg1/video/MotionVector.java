@@ -16,170 +16,54 @@ import java.io.IOException;
 
 import edu.columbia.ee.flavor.Bitstream;
 import edu.umd.cfar.lamp.mpeg1.Parsable;
-import edu.umd.cfar.lamp.mpeg1.ParsingException;
 
+/**
+ * Corresponds to motion_horizontal_forward_code (and the other motion codes)
+ * in ISO/IEC 11172-2 (Table B.4)
+ */
 class MotionVector implements Parsable {
+	// { code, length, motion code }
+	private static final VlcTable table = new VlcTable("MotionVector", 11, new int[][] {
+			{ 0x1, 1, 0 }, // 1
+			{ 0x3, 3, -1 }, // 011
+			{ 0x2, 3, 1 }, // 010
+			{ 0x3, 4, -2 }, // 0011
+			{ 0x2, 4, 2 }, // 0010
+			{ 0x3, 5, -3 }, // 0001.1
+			{ 0x2, 5, 3 }, // 0001.0
+			{ 0x7, 7, -4 }, // 0000.111
+			{ 0x6, 7, 4 }, // 0000.110
+			{ 0x7, 8, -7 }, // 0000.0111
+			{ 0x9, 8, -6 }, // 0000.1001
+			{ 0xB, 8, -5 }, // 0000.1011
+			{ 0xA, 8, 5 }, // 0000.1010
+			{ 0x8, 8, 6 }, // 0000.1000
+			{ 0x6, 8, 7 }, // 0000.0110
+			{ 0x13, 10, -10 }, // 0000.0100.11
+			{ 0x15, 10, -9 }, // 0000.0101.01
+			{ 0x17, 10, -8 }, // 0000.0101.11
+			{ 0x16, 10, 8 }, // 0000.0101.10
+			{ 0x14, 10, 9 }, // 0000.0101.00
+			{ 0x12, 10, 10 }, // 0000.0100.10
+			{ 0x19, 11, -16 }, // 0000.0011.001
+			{ 0x1B, 11, -15 }, // 0000.0011.011
+			{ 0x1D, 11, -14 }, // 0000.0011.101
+			{ 0x1F, 11, -13 }, // 0000.0011.111
+			{ 0x21, 11, -12 }, // 0000.0100.001
+			{ 0x23, 11, -11 }, // 0000.0100.011
+			{ 0x22, 11, 11 }, // 0000.0100.010
+			{ 0x20, 11, 12 }, // 0000.0100.000
+			{ 0x1E, 11, 13 }, // 0000.0011.110
+			{ 0x1C, 11, 14 }, // 0000.0011.100
+			{ 0x1A, 11, 15 }, // 0000.0011.010
+			{ 0x18, 11, 16 } // 0000.0011.000
+	});
+
 	private int value = 0;
 
 	@Override
 	public void parse(Bitstream bitstream) throws IOException {
-		switch (bitstream.nextbits(1)) {
-			case 1:
-				bitstream.skipbits(1);
-				value = 0;
-				break;
-			default:
-				switch (bitstream.nextbits(3)) {
-					case 3:
-						bitstream.skipbits(3);
-						value = -1;
-						break;
-					case 2:
-						bitstream.skipbits(3);
-						value = 1;
-						break;
-					default:
-						switch (bitstream.nextbits(4)) {
-							case 3:
-								bitstream.skipbits(4);
-								value = -2;
-								break;
-							case 2:
-								bitstream.skipbits(4);
-								value = 2;
-								break;
-							default:
-								switch (bitstream.nextbits(5)) {
-									case 3:
-										bitstream.skipbits(5);
-										value = -3;
-										break;
-									case 2:
-										bitstream.skipbits(5);
-										value = 3;
-										break;
-									default:
-										switch (bitstream.nextbits(7)) {
-											case 7:
-												bitstream.skipbits(7);
-												value = -4;
-												break;
-											case 6:
-												bitstream.skipbits(7);
-												value = 4;
-												break;
-											default:
-												switch (bitstream.nextbits(8)) {
-													case 7:
-														bitstream.skipbits(8);
-														value = -7;
-														break;
-													case 9:
-														bitstream.skipbits(8);
-														value = -6;
-														break;
-													case 11:
-														bitstream.skipbits(8);
-														value = -5;
-														break;
-													case 10:
-														bitstream.skipbits(8);
-														value = 5;
-														break;
-													case 8:
-														bitstream.skipbits(8);
-														value = 6;
-														break;
-													case 6:
-														bitstream.skipbits(8);
-														value = 7;
-														break;
-													default:
-														switch (bitstream.nextbits(10)) {
-															case 19:
-																bitstream.skipbits(10);
-																value = -10;
-																break;
-															case 21:
-																bitstream.skipbits(10);
-																value = -9;
-																break;
-															case 23:
-																bitstream.skipbits(10);
-																value = -8;
-																break;
-															case 22:
-																bitstream.skipbits(10);
-																value = 8;
-																break;
-															case 20:
-																bitstream.skipbits(10);
-																value = 9;
-																break;
-															case 18:
-																bitstream.skipbits(10);
-																value = 10;
-																break;
-															default:
-																switch (bitstream.nextbits(11)) {
-																	case 25:
-																		bitstream.skipbits(11);
-																		value = -16;
-																		break;
-																	case 27:
-																		bitstream.skipbits(11);
-																		value = -15;
-																		break;
-																	case 29:
-																		bitstream.skipbits(11);
-																		value = -14;
-																		break;
-																	case 31:
-																		bitstream.skipbits(11);
-																		value = -13;
-																		break;
-																	case 33:
-																		bitstream.skipbits(11);
-																		value = -12;
-																		break;
-																	case 35:
-																		bitstream.skipbits(11);
-																		value = -11;
-																		break;
-																	case 34:
-																		bitstream.skipbits(11);
-																		value = 11;
-																		break;
-																	case 32:
-																		bitstream.skipbits(11);
-																		value = 12;
-																		break;
-																	case 30:
-																		bitstream.skipbits(11);
-																		value = 13;
-																		break;
-																	case 28:
-																		bitstream.skipbits(11);
-																		value = 14;
-																		break;
-																	case 26:
-																		bitstream.skipbits(11);
-																		value = 15;
-																		break;
-																	case 24:
-																		bitstream.skipbits(11);
-																		value = 16;
-																		break;
-																	default:
-																		throw new ParsingException("VLC decode for MotionVector failed.");
-																}
-														}
-												}
-										}
-								}
-						}
-				}
-		}
+		value = table.decode(bitstream);
 	}
 
 	public int getValue() {
@@ -15,6 +15,7 @@ package edu.umd.cfar.lamp.mpeg1.video;
 import java.io.IOException;
 
 import edu.columbia.ee.flavor.Bitstream;
+import edu.umd.cfar.lamp.mpeg1.ByteBufferBitstream;
 import edu.umd.cfar.lamp.mpeg1.MpegException;
 import edu.umd.cfar.lamp.mpeg1.ParsingException;
 
@@ -214,6 +215,11 @@ class Picture implements Decodable {
 			NextStartCode.parse(bitstream);
 		}
 
+		if (decoderState.getSlicePool() != null && bitstream instanceof ByteBufferBitstream) {
+			decoderState.decodeSlicesInParallel((ByteBufferBitstream) bitstream);
+			return;
+		}
+
 		do {
 			try {
 				decoderState.decodeSlice(bitstream);
@@ -0,0 +1,59 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+/**
+ * Byte layouts of a frame written to a <code>ByteBuffer</code> by
+ * {@link VideoDecoder#getPixels(java.nio.ByteBuffer, PixelFormat)}. Rows
+ * are packed without padding.
+ */
+public enum PixelFormat {
+	/** Four bytes per pixel: red, green, blue, and an alpha of 255. */
+	RGBA8,
+
+	/** Four bytes per pixel: blue, green, red, and an alpha of 255. */
+	BGRA8,
+
+	/**
+	 * Planar YCbCr 4:2:0: the Y plane, then the Cb plane, then the Cr
+	 * plane, each chroma plane half the width and height of the frame
+	 * (rounded up). The samples are the decoded ones, with no color
+	 * conversion.
+	 */
+	I420,
+
+	/**
+	 * The Y plane, then one plane of interleaved Cb and Cr samples, half the
+	 * height of the frame (rounded up).
+	 */
+	NV12;
+
+	/**
+	 * Gets the number of bytes a frame takes in this format.
+	 *
+	 * @param width
+	 *            width of the frame
+	 * @param height
+	 *            height of the frame
+	 * @return the size of the frame in bytes
+	 */
+	public int getFrameSize(int width, int height) {
+		switch (this) {
+			case RGBA8:
+			case BGRA8:
+				return 4 * width * height;
+			default:
+				return width * height + 2 * ((width + 1) / 2) * ((height + 1) / 2);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.umd.cfar.lamp.mpeg1.MpegException;
+
+/**
+ * Decodes the frames after the one last seeked to on a thread of its own,
+ * so that sequential seeks find them ready. As in
+ * <code>RangeDecoder</code>, the thread has its own
+ * <code>VideoDecoder</code>, with a copy of the video source and of the
+ * index. A seek anywhere else cancels the frames decoded ahead, and the
+ * thread starts again after the new frame.
+ */
+class Prefetcher {
+	private final VideoDecoder videoDecoder;
+	private final int frames; // how many frames to decode ahead
+	private final int numFrames;
+	private final byte index[]; // the video index, for the decoder of the thread
+
+	// guarded by this
+	private final TreeMap<Integer, FrameBuffer> ready = new TreeMap<Integer, FrameBuffer>();
+	private final List<FrameBuffer> spare = new ArrayList<FrameBuffer>();
+	private int next = 0; // next frame for the thread to decode
+	private int last = -1; // last frame to decode ahead
+	private int decoding = -1; // frame the thread is decoding, or -1
+	private int generation = 0; // changed whenever the frames ahead are dropped
+	private int decodingGeneration = 0;
+	private boolean closed = false;
+	private boolean failed = false;
+
+	/**
+	 * Starts the thread, which waits for the first seek.
+	 *
+	 * @param videoDecoder
+	 *            an indexed decoder, whose settings the thread copies
+	 * @param frames
+	 *            how many frames to decode ahead
+	 */
+	public Prefetcher(VideoDecoder videoDecoder, int frames) throws IOException, MpegException {
+		this.videoDecoder = videoDecoder;
+		this.frames = frames;
+		this.numFrames = videoDecoder.getNumFrames();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		videoDecoder.getVideoIndex().writeIndex(new DataOutputStream(out));
+		this.index = out.toByteArray();
+
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				work();
+			}
+		}, "Prefetcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public int getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Gets a frame that has been decoded ahead, waiting for it if the thread
+	 * is about to have it, and moves the frames to decode ahead past it.
+	 * Otherwise the frames decoded ahead are dropped, and the thread starts
+	 * again after the frame, which the caller decodes itself.
+	 *
+	 * @param frame
+	 *            the frame seeked to
+	 * @return the decoded frame, to be handed back with
+	 *         {@link #recycle(FrameBuffer)}, or <code>null</code>
+	 */
+	public synchronized FrameBuffer take(int frame) {
+		if (closed || failed)
+			return null;
+
+		// frames before this one are not wanted any more
+		for (Iterator<Map.Entry<Integer, FrameBuffer>> i = ready.headMap(frame).entrySet().iterator(); i.hasNext();) {
+			spare.add(i.next().getValue());
+			i.remove();
+		}
+
+		boolean coming = ready.containsKey(frame) || (frame == decoding && decodingGeneration == generation) || (frame >= next && frame <= next + frames);
+		if (!coming) {
+			cancel(frame + 1);
+			return null;
+		}
+
+		last = Math.min(numFrames - 1, frame + frames);
+		notifyAll();
+
+		// decoding, or about to be
+		int current = generation;
+		try {
+			while (!ready.containsKey(frame) && current == generation && !closed && !failed)
+				wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return ready.remove(frame);
+	}
+
+	/**
+	 * Hands back a frame returned by <code>take</code>.
+	 */
+	public synchronized void recycle(FrameBuffer buffer) {
+		spare.add(buffer);
+	}
+
+	/**
+	 * Drops the frames decoded ahead, after the settings of the decoder have
+	 * changed. The thread picks up the new settings, and waits for the next
+	 * seek.
+	 */
+	public synchronized void reset() {
+		cancel(next);
+		last = next - 1;
+	}
+
+	/**
+	 * Drops the frames decoded ahead; the thread starts again at a frame.
+	 */
+	private void cancel(int frame) {
+		spare.addAll(ready.values());
+		ready.clear();
+		generation++;
+		next = frame;
+		last = Math.min(numFrames - 1, frame + frames - 1);
+		notifyAll();
+	}
+
+	/**
+	 * Stops the thread once it has finished the frame it is on.
+	 */
+	public synchronized void close() {
+		closed = true;
+		ready.clear();
+		spare.clear();
+		notifyAll();
+	}
+
+	private void work() {
+		VideoDecoder decoder = null;
+		try {
+			decoder = new VideoDecoder(videoDecoder.getVideoSource());
+			decoder.readIndex(new DataInputStream(new ByteArrayInputStream(index)));
+
+			while (true) {
+				int frame;
+				int current;
+				FrameBuffer buffer;
+				boolean referenceIDCT;
+				int scale;
+				synchronized (this) {
+					while (!closed && next > last)
+						wait();
+					if (closed)
+						return;
+					frame = next++;
+					current = generation;
+					decoding = frame;
+					decodingGeneration = generation;
+					buffer = spare.isEmpty() ? null : spare.remove(spare.size() - 1);
+
+					// changed before the reset that dropped the frames ahead
+					referenceIDCT = videoDecoder.isReferenceIDCT();
+					scale = videoDecoder.getScale();
+				}
+
+				if (referenceIDCT != decoder.isReferenceIDCT()) {
+					// start again, rather than predict from pictures
+					// transformed the other way
+					decoder.getVideoSource().close();
+					decoder = new VideoDecoder(videoDecoder.getVideoSource());
+					decoder.readIndex(new DataInputStream(new ByteArrayInputStream(index)));
+					decoder.setReferenceIDCT(referenceIDCT);
+				}
+				decoder.setScale(scale);
+				decoder.seek(frame);
+				FrameBuffer decoded = decoder.getCurrentFrameBuffer();
+				if (buffer == null || buffer.getWidth() != decoded.getWidth() || buffer.getHeight() != decoded.getHeight())
+					buffer = new FrameBuffer(decoded);
+				buffer.copyFrom(decoded);
+
+				synchronized (this) {
+					decoding = -1;
+					if (current == generation && !closed)
+						ready.put(frame, buffer);
+					else
+						spare.add(buffer);
+					notifyAll();
+				}
+			}
+		} catch (Throwable t) {
+			// the caller decodes the frames itself, and sees the error then
+			synchronized (this) {
+				failed = true;
+				decoding = -1;
+				notifyAll();
+			}
+		} finally {
+			try {
+				if (decoder != null)
+					decoder.getVideoSource().close();
+			} catch (IOException e) {
+				// nothing more to read from it anyway
+			}
+		}
+	}
+}
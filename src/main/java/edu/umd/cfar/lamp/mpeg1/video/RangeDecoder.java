@@ -0,0 +1,203 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cfar.lamp.mpeg1.MpegException;
+
+/**
+ * Decodes a range of frames with several threads, one Group of Pictures at
+ * a time per thread. Each thread has its own <code>VideoDecoder</code>, with
+ * a copy of the video source and of the index, and so its own
+ * <code>DecoderState</code>. A GOP that starts with B pictures predicted
+ * from the previous GOP also decodes the pictures of that GOP it needs.
+ *
+ * Decoded frames go into a bounded reorder buffer, from which the thread
+ * that started decoding hands them to the consumer in display order.
+ */
+class RangeDecoder {
+	private final VideoDecoder videoDecoder;
+	private final int from;
+	private final int to;
+	private final int lastGop;
+	private final int scale;
+	private final AtomicInteger nextGop;
+	private final byte index[]; // the video index, for the decoders of the threads
+
+	// reorder buffer
+	private final Map<Integer, int[]> decoded = new HashMap<Integer, int[]>();
+	private final int capacity;
+	private int next; // next frame to deliver
+	private Throwable failure = null;
+	private boolean stopped = false;
+
+	/**
+	 * @param videoDecoder
+	 *            an indexed decoder; it is not used to decode
+	 * @param from
+	 *            first frame
+	 * @param to
+	 *            frame after the last frame
+	 * @param capacity
+	 *            number of decoded frames that may wait in the reorder
+	 *            buffer
+	 * @param scale
+	 *            the scale to decode at, as for
+	 *            {@link VideoDecoder#setScale(int)}
+	 */
+	public RangeDecoder(VideoDecoder videoDecoder, int from, int to, int capacity, int scale) throws IOException, MpegException {
+		this.videoDecoder = videoDecoder;
+		this.from = from;
+		this.to = to;
+		this.scale = scale;
+		this.capacity = Math.max(1, capacity);
+		this.next = from;
+
+		VideoIndex videoIndex = videoDecoder.getVideoIndex();
+		this.nextGop = new AtomicInteger(videoIndex.getGroupOfPicturesNumberForFrame(from));
+		this.lastGop = videoIndex.getGroupOfPicturesNumberForFrame(to - 1);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		videoIndex.writeIndex(new DataOutputStream(out));
+		this.index = out.toByteArray();
+	}
+
+	/**
+	 * Decodes the frames and hands them to a consumer.
+	 *
+	 * @param consumer
+	 *            receives the frames in display order
+	 * @param threads
+	 *            number of decoding threads
+	 */
+	public void decode(FrameConsumer consumer, int threads) throws IOException, MpegException {
+		threads = Math.max(1, Math.min(threads, lastGop - nextGop.get() + 1));
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						work();
+					}
+				});
+			}
+
+			for (int frame = from; frame < to; frame++)
+				consumer.frameDecoded(frame, take());
+		} finally {
+			stop();
+			executor.shutdownNow();
+		}
+	}
+
+	private void work() {
+		VideoDecoder decoder = null;
+		try {
+			decoder = new VideoDecoder(videoDecoder.getVideoSource());
+			decoder.readIndex(new DataInputStream(new ByteArrayInputStream(index)));
+			decoder.setReferenceIDCT(videoDecoder.isReferenceIDCT());
+			decoder.setScale(scale);
+			VideoIndex videoIndex = decoder.getVideoIndex();
+
+			for (int gop = nextGop.getAndIncrement(); gop <= lastGop; gop = nextGop.getAndIncrement()) {
+				int first = Math.max(from, videoIndex.getStartFrame(gop));
+				int last = Math.min(to, videoIndex.getStartFrame(gop) + videoIndex.getNumFrames(gop));
+				for (int frame = first; frame < last; frame++) {
+					decoder.seek(frame);
+					if (!put(frame, decoder.getRawPixels()))
+						return;
+				}
+			}
+		} catch (Throwable t) {
+			fail(t);
+		} finally {
+			try {
+				if (decoder != null)
+					decoder.getVideoSource().close();
+			} catch (IOException e) {
+				// nothing more to read from it anyway
+			}
+		}
+	}
+
+	/**
+	 * Adds a frame to the reorder buffer, waiting for room unless it is the
+	 * next frame to deliver.
+	 *
+	 * @return <code>false</code> if decoding has stopped
+	 */
+	private synchronized boolean put(int frame, int pixels[]) throws InterruptedException {
+		while (!stopped && frame != next && decoded.size() >= capacity)
+			wait();
+		if (stopped)
+			return false;
+
+		decoded.put(frame, pixels);
+		notifyAll();
+		return true;
+	}
+
+	/**
+	 * Removes the next frame to deliver from the reorder buffer, waiting for
+	 * it to be decoded.
+	 */
+	private synchronized int[] take() throws IOException, MpegException {
+		try {
+			while (failure == null && !decoded.containsKey(next))
+				wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while decoding frame " + next + ".");
+		}
+
+		if (failure instanceof IOException)
+			throw (IOException) failure;
+		if (failure instanceof MpegException)
+			throw (MpegException) failure;
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new MpegException(failure.toString());
+
+		int pixels[] = decoded.remove(next);
+		next++;
+		notifyAll();
+		return pixels;
+	}
+
+	private synchronized void fail(Throwable t) {
+		if (failure == null && !stopped)
+			failure = t;
+		notifyAll();
+	}
+
+	private synchronized void stop() {
+		stopped = true;
+		decoded.clear();
+		notifyAll();
+	}
+}
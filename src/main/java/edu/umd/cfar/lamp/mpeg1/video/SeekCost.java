@@ -0,0 +1,70 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What a seek to a frame would decode, as returned by
+ * {@link VideoDecoder#estimateSeekCost(int)}. The estimate holds only until
+ * the decoder seeks again.
+ */
+public class SeekCost {
+	private int frame;
+	private int pictures[];
+	private long bytes;
+
+	SeekCost(int frame, List<Integer> plan, long bytes) {
+		this.frame = frame;
+		this.pictures = new int[plan.size()];
+		for (int i = 0; i < pictures.length; i++)
+			pictures[i] = plan.get(i).intValue();
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @return the frame to seek to
+	 */
+	public int getFrame() {
+		return frame;
+	}
+
+	/**
+	 * @return the number of pictures to decode; 0 if the frame is already
+	 *         decoded
+	 */
+	public int getPictureCount() {
+		return pictures.length;
+	}
+
+	/**
+	 * @return the number of bytes of the pictures to decode
+	 */
+	public long getByteCount() {
+		return bytes;
+	}
+
+	/**
+	 * @return the frame numbers of the pictures to decode, in the order
+	 *         they would be decoded
+	 */
+	public int[] getPictures() {
+		return pictures.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "(Frame: " + frame + ", Pictures: " + pictures.length + ", Bytes: " + bytes + ", Decode order: " + Arrays.toString(pictures) + ")";
+	}
+}
@@ -0,0 +1,107 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+/**
+ * How {@link VideoDecoder#seek(int, SeekMode)} picks the frame it lands on.
+ * Keyframes are I pictures, which decode on their own.
+ */
+public final class SeekMode {
+	static final int TYPE_EXACT = 0;
+	static final int TYPE_PREVIOUS_KEYFRAME = 1;
+	static final int TYPE_NEXT_KEYFRAME = 2;
+	static final int TYPE_NEAREST_KEYFRAME = 3;
+	static final int TYPE_CLOSEST_DECODABLE = 4;
+	static final int TYPE_TRICK_PLAY = 5;
+
+	/** Lands on the requested frame. */
+	public static final SeekMode EXACT = new SeekMode(TYPE_EXACT, 0);
+
+	/** Lands on the last keyframe at or before the requested frame. */
+	public static final SeekMode PREVIOUS_KEYFRAME = new SeekMode(TYPE_PREVIOUS_KEYFRAME, 0);
+
+	/**
+	 * Lands on the first keyframe at or after the requested frame, or on the
+	 * last keyframe if there is none after it.
+	 */
+	public static final SeekMode NEXT_KEYFRAME = new SeekMode(TYPE_NEXT_KEYFRAME, 0);
+
+	/**
+	 * Lands on the keyframe closest to the requested frame, the earlier one
+	 * on a tie.
+	 */
+	public static final SeekMode NEAREST_KEYFRAME = new SeekMode(TYPE_NEAREST_KEYFRAME, 0);
+
+	/**
+	 * For fast forward and rewind: lands on the last D picture between the
+	 * previous keyframe and the requested frame, or else as
+	 * {@link #PREVIOUS_KEYFRAME}. D pictures hold only the DC coefficients,
+	 * so they are the cheapest pictures to decode, where a stream has them.
+	 */
+	public static final SeekMode TRICK_PLAY = new SeekMode(TYPE_TRICK_PLAY, 0);
+
+	private int type;
+	private int maxPictures;
+
+	private SeekMode(int type, int maxPictures) {
+		this.type = type;
+		this.maxPictures = maxPictures;
+	}
+
+	/**
+	 * Lands on the frame closest to the requested frame, the earlier one on a
+	 * tie, that can be reached by decoding no more than a number of pictures,
+	 * as counted by {@link VideoDecoder#estimateSeekCost(int)}. The keyframes
+	 * around the requested frame take one picture, so the search goes no
+	 * further than them.
+	 *
+	 * @param maxPictures
+	 *            the most pictures to decode; at least 1
+	 * @return the mode
+	 */
+	public static SeekMode closestDecodableWithin(int maxPictures) {
+		if (maxPictures < 1)
+			throw new IllegalArgumentException("maxPictures must be at least 1: " + maxPictures);
+		return new SeekMode(TYPE_CLOSEST_DECODABLE, maxPictures);
+	}
+
+	int getType() {
+		return type;
+	}
+
+	/**
+	 * @return the most pictures to decode, for
+	 *         {@link #closestDecodableWithin(int)}; 0 for the other modes
+	 */
+	public int getMaxPictures() {
+		return maxPictures;
+	}
+
+	@Override
+	public String toString() {
+		switch (type) {
+			case TYPE_EXACT:
+				return "EXACT";
+			case TYPE_PREVIOUS_KEYFRAME:
+				return "PREVIOUS_KEYFRAME";
+			case TYPE_NEXT_KEYFRAME:
+				return "NEXT_KEYFRAME";
+			case TYPE_NEAREST_KEYFRAME:
+				return "NEAREST_KEYFRAME";
+			case TYPE_TRICK_PLAY:
+				return "TRICK_PLAY";
+			default:
+				return "CLOSEST_DECODABLE_WITHIN(" + maxPictures + ")";
+		}
+	}
+}
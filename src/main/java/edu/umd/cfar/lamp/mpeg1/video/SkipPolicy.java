@@ -0,0 +1,40 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+/**
+ * Which pictures {@link VideoDecoder#seek(int)} may drop, for playback
+ * that cannot keep up. Only pictures no other picture is predicted from
+ * are dropped, so the frames after them are not affected. A dropped frame
+ * is neither parsed nor reconstructed; the frame shown before it is shown
+ * again in its place.
+ */
+public enum SkipPolicy {
+	/** Decodes every frame. */
+	NONE,
+
+	/** Drops every B picture. */
+	SKIP_B,
+
+	/**
+	 * Drops every B picture, and every P picture that is followed by an I
+	 * or D picture with no B picture in between.
+	 */
+	SKIP_B_AND_NONREF_P,
+
+	/**
+	 * Drops the pictures of {@link #SKIP_B_AND_NONREF_P}, but only once the
+	 * deadline set with {@link VideoDecoder#setDeadline(long)} has passed.
+	 */
+	DEADLINE;
+}
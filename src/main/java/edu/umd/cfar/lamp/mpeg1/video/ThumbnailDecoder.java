@@ -0,0 +1,147 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cfar.lamp.mpeg1.MpegException;
+
+/**
+ * Decodes thumbnails of several frames with several threads. As in
+ * <code>RangeDecoder</code>, each thread has its own
+ * <code>VideoDecoder</code>, with a copy of the video source and of the
+ * index. The threads take the frames in stream order, so each reads forward
+ * through the stream.
+ */
+class ThumbnailDecoder {
+	private final VideoDecoder videoDecoder;
+	private final int frames[]; // in stream order
+	private final int order[]; // index in the result of each of frames
+	private final int width;
+	private final int height;
+	private final byte index[]; // the video index, for the decoders of the threads
+
+	private final AtomicInteger next = new AtomicInteger();
+	private final BufferedImage thumbnails[];
+
+	/**
+	 * @param videoDecoder
+	 *            an indexed decoder; it is not used to decode
+	 * @param frames
+	 *            the frames to make thumbnails of
+	 * @param width
+	 *            width of the thumbnails
+	 * @param height
+	 *            height of the thumbnails
+	 */
+	public ThumbnailDecoder(VideoDecoder videoDecoder, int frames[], int width, int height) throws IOException, MpegException {
+		this.videoDecoder = videoDecoder;
+		this.width = width;
+		this.height = height;
+		this.thumbnails = new BufferedImage[frames.length];
+
+		// sort the frames, remembering where each goes
+		long keys[] = new long[frames.length];
+		for (int i = 0; i < frames.length; i++)
+			keys[i] = ((long) frames[i] << 32) | i;
+		Arrays.sort(keys);
+		this.frames = new int[frames.length];
+		this.order = new int[frames.length];
+		for (int i = 0; i < keys.length; i++) {
+			this.frames[i] = (int) (keys[i] >> 32);
+			this.order[i] = (int) keys[i];
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		videoDecoder.getVideoIndex().writeIndex(new DataOutputStream(out));
+		this.index = out.toByteArray();
+	}
+
+	/**
+	 * Decodes the thumbnails.
+	 *
+	 * @param threads
+	 *            number of decoding threads
+	 * @return the thumbnails, in the order of the frames given
+	 */
+	public BufferedImage[] decode(int threads) throws IOException, MpegException {
+		threads = Math.max(1, Math.min(threads, frames.length));
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<Void>> calls = new ArrayList<Callable<Void>>();
+			for (int i = 0; i < threads; i++) {
+				calls.add(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						work();
+						return null;
+					}
+				});
+			}
+
+			for (Future<Void> result : executor.invokeAll(calls)) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof IOException)
+						throw (IOException) cause;
+					if (cause instanceof MpegException)
+						throw (MpegException) cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new MpegException(cause.toString());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while decoding thumbnails.");
+		} finally {
+			executor.shutdownNow();
+		}
+		return thumbnails;
+	}
+
+	private void work() throws IOException, MpegException {
+		VideoDecoder decoder = new VideoDecoder(videoDecoder.getVideoSource());
+		try {
+			decoder.readIndex(new DataInputStream(new ByteArrayInputStream(index)));
+			decoder.setReferenceIDCT(videoDecoder.isReferenceIDCT());
+			decoder.setScale(videoDecoder.getScale());
+
+			for (int i = next.getAndIncrement(); i < frames.length; i = next.getAndIncrement()) {
+				decoder.seek(frames[i]);
+				thumbnails[order[i]] = decoder.getThumbnail(width, height);
+			}
+		} finally {
+			decoder.getVideoSource().close();
+		}
+	}
+}
@@ -13,9 +13,19 @@
 package edu.umd.cfar.lamp.mpeg1.video;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import edu.umd.cfar.lamp.mpeg1.MpegException;
 
@@ -25,6 +35,24 @@ public class VideoDecoder {
 	private VideoSource videoSource = null;
 
 	private int currentFrame = -1;
+	private boolean currentFrameSkipped = false;
+
+	private SkipPolicy skipPolicy = SkipPolicy.NONE;
+	private long deadline;
+	private boolean deadlineSet = false;
+
+	private boolean referenceIDCT = false;
+	private int scaleShift = 0; // log2 of the scale
+	private ForkJoinPool slicePool = null;
+	private FrameCache frameCache = null;
+	private FrameCache checkpoints = null;
+	private int checkpointInterval = 0;
+	private Prefetcher prefetcher = null;
+
+	// one row of pixels, for buffers without an accessible array
+	private int rowPixels[] = new int[0];
+	// one row of interleaved chroma samples, for NV12 output
+	private byte rowSamples[] = new byte[0];
 
 	public VideoDecoder(VideoSource videoSource) throws IOException, MpegException {
 		this.videoSource = videoSource.copySource();
@@ -47,6 +75,10 @@ public class VideoDecoder {
 		return videoSource;
 	}
 
+	VideoIndex getVideoIndex() {
+		return videoIndex;
+	}
+
 	private void initDecoderState() throws IOException, MpegException {
 		if (decoderState == null) {
 			getFirstSequenceHeader();
@@ -73,6 +105,22 @@ public class VideoDecoder {
 		return videoIndex.getFrameHeight();
 	}
 
+	/**
+	 * @return width of the decoded frames at the current scale
+	 * @see #setScale(int)
+	 */
+	public int getScaledFrameWidth() throws IOException, MpegException {
+		return (getFrameWidth() + (1 << scaleShift) - 1) >> scaleShift;
+	}
+
+	/**
+	 * @return height of the decoded frames at the current scale
+	 * @see #setScale(int)
+	 */
+	public int getScaledFrameHeight() throws IOException, MpegException {
+		return (getFrameHeight() + (1 << scaleShift) - 1) >> scaleShift;
+	}
+
 	public int getBitRate() throws IOException, MpegException {
 		getFirstSequenceHeader();
 		return videoIndex.getBitRate();
@@ -104,12 +152,360 @@ public class VideoDecoder {
 		index();
 		initDecoderState();
 
-		if (frame != getCurrentFrame()) {
-			decoderState.seek(frame);
+		if (frame != getCurrentFrame() || currentFrameSkipped) {
+			FrameBuffer cached = (frameCache != null) ? frameCache.get(frame) : null;
+			currentFrameSkipped = false;
+			if (cached != null) {
+				decoderState.restore(frame, cached);
+			} else if (getCurrentFrame() != -1 && isSkipped(frame)) {
+				// the frame shown stays in the current buffer
+				currentFrameSkipped = true;
+			} else {
+				FrameBuffer prefetched = (prefetcher != null) ? prefetcher.take(frame) : null;
+				if (prefetched != null) {
+					decoderState.restore(frame, prefetched);
+					prefetcher.recycle(prefetched);
+				} else {
+					decoderState.seek(frame);
+				}
+				if (frameCache != null)
+					frameCache.put(frame, decoderState.getCurrentFrameBuffer());
+			}
 			currentFrame = frame;
 		}
 	}
 
+	/**
+	 * Decides whether the skip policy drops a frame.
+	 */
+	private boolean isSkipped(int frame) throws IOException, MpegException {
+		switch (skipPolicy) {
+			case SKIP_B:
+				return getPictureCodingType(frame) == PictureCodingTypes.TYPE_B;
+			case SKIP_B_AND_NONREF_P:
+				return isDroppable(frame);
+			case DEADLINE:
+				return deadlineSet && System.nanoTime() - deadline > 0 && isDroppable(frame);
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * @return whether a frame is a B picture, or a P picture no picture is
+	 *         predicted from: one followed by an I or D picture with no B
+	 *         picture in between
+	 */
+	private boolean isDroppable(int frame) throws IOException, MpegException {
+		switch (getPictureCodingType(frame)) {
+			case PictureCodingTypes.TYPE_B:
+				return true;
+			case PictureCodingTypes.TYPE_P:
+				int numFrames = getNumFrames();
+				for (int f = frame + 1; f < numFrames; f++) {
+					int type = getPictureCodingType(f);
+					if (type == PictureCodingTypes.TYPE_I || type == PictureCodingTypes.TYPE_D)
+						return true;
+					if (type == PictureCodingTypes.TYPE_P || type == PictureCodingTypes.TYPE_B)
+						return false;
+				}
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Lets {@link #seek(int)} drop frames from now on, to keep up with
+	 * playback. The first frame seeked to is never dropped, and nor are
+	 * frames in the frame cache.
+	 * 
+	 * @param skipPolicy
+	 *            which frames may be dropped; {@link SkipPolicy#NONE} (the
+	 *            default) decodes every frame
+	 * @see #isCurrentFrameSkipped()
+	 */
+	public void setSkipPolicy(SkipPolicy skipPolicy) {
+		if (skipPolicy == null)
+			throw new NullPointerException("skipPolicy");
+		this.skipPolicy = skipPolicy;
+	}
+
+	public SkipPolicy getSkipPolicy() {
+		return skipPolicy;
+	}
+
+	/**
+	 * Sets the deadline of {@link SkipPolicy#DEADLINE}: once it has passed,
+	 * seeks drop the frames that can be dropped. A player would set it to
+	 * when the next frame is due.
+	 * 
+	 * @param deadline
+	 *            a time as returned by <code>System.nanoTime()</code>
+	 */
+	public void setDeadline(long deadline) {
+		this.deadline = deadline;
+		this.deadlineSet = true;
+	}
+
+	/**
+	 * Removes the deadline, so that {@link SkipPolicy#DEADLINE} drops
+	 * nothing.
+	 */
+	public void clearDeadline() {
+		deadlineSet = false;
+	}
+
+	/**
+	 * @return whether the skip policy dropped the current frame, so that
+	 *         the frame shown before it is shown in its place
+	 */
+	public boolean isCurrentFrameSkipped() {
+		return currentFrameSkipped;
+	}
+
+	/**
+	 * Seeks to a frame picked by a mode, such as the keyframe nearest to the
+	 * requested frame, which is cheaper to reach than the frame itself.
+	 * 
+	 * @param frame
+	 *            the requested frame
+	 * @param mode
+	 *            how to pick the frame to land on
+	 * @return the frame landed on, which is now the current frame
+	 */
+	public int seek(int frame, SeekMode mode) throws IOException, MpegException {
+		int target = findSeekTarget(frame, mode);
+		seek(target);
+		return target;
+	}
+
+	/**
+	 * Works out which frame <code>seek(frame, mode)</code> would land on,
+	 * without decoding anything. The keyframe modes land on the requested
+	 * frame in a stream without I pictures.
+	 * 
+	 * @param frame
+	 *            the requested frame
+	 * @param mode
+	 *            how to pick the frame to land on
+	 * @return the frame to land on
+	 */
+	public int findSeekTarget(int frame, SeekMode mode) throws IOException, MpegException {
+		if (frame < 0 || frame >= getNumFrames())
+			throw new FrameNotFoundException("frame " + frame);
+
+		int previous;
+		int next;
+		switch (mode.getType()) {
+			case SeekMode.TYPE_EXACT:
+				return frame;
+			case SeekMode.TYPE_PREVIOUS_KEYFRAME:
+				previous = findKeyframe(frame, true);
+				if (previous == -1)
+					previous = findKeyframe(frame, false);
+				return (previous != -1) ? previous : frame;
+			case SeekMode.TYPE_NEXT_KEYFRAME:
+				next = findKeyframe(frame, false);
+				if (next == -1)
+					next = findKeyframe(frame, true);
+				return (next != -1) ? next : frame;
+			case SeekMode.TYPE_NEAREST_KEYFRAME:
+				previous = findKeyframe(frame, true);
+				next = findKeyframe(frame, false);
+				if (previous == -1)
+					return (next != -1) ? next : frame;
+				if (next == -1 || frame - previous <= next - frame)
+					return previous;
+				return next;
+			case SeekMode.TYPE_TRICK_PLAY:
+				previous = findKeyframe(frame, true);
+				for (int f = frame; f > previous; f--) {
+					if (getPictureCodingType(f) == PictureCodingTypes.TYPE_D)
+						return f;
+				}
+				return findSeekTarget(frame, SeekMode.PREVIOUS_KEYFRAME);
+			default:
+				return findClosestDecodable(frame, mode.getMaxPictures());
+		}
+	}
+
+	/**
+	 * @return the I frame closest to <code>frame</code> in one direction,
+	 *         including <code>frame</code> itself, or -1 if there is none
+	 */
+	private int findKeyframe(int frame, boolean before) throws IOException, MpegException {
+		try {
+			return before ? videoIndex.getIFrameAtOrBefore(frame) : videoIndex.getIFrameAtOrAfter(frame);
+		} catch (FrameNotFoundException fnfe) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Searches outwards from a frame for one that takes no more than a
+	 * number of pictures to reach. The keyframes on either side take one,
+	 * which bounds the search.
+	 */
+	private int findClosestDecodable(int frame, int maxPictures) throws IOException, MpegException {
+		int low = findKeyframe(frame, true);
+		if (low == -1)
+			low = 0;
+		int high = findKeyframe(frame, false);
+		if (high == -1)
+			high = getNumFrames() - 1;
+
+		for (int distance = 0; frame - distance >= low || frame + distance <= high; distance++) {
+			if (frame - distance >= low && estimateSeekCost(frame - distance).getPictureCount() <= maxPictures)
+				return frame - distance;
+			if (distance > 0 && frame + distance <= high && estimateSeekCost(frame + distance).getPictureCount() <= maxPictures)
+				return frame + distance;
+		}
+		return frame;
+	}
+
+	/**
+	 * Works out what seeking to a frame would decode, without decoding
+	 * anything. Frames in the frame cache or among the three decoded
+	 * pictures the decoder holds cost nothing. Otherwise the plan starts
+	 * from the closest I or P picture at hand (held, in a checkpoint, or an
+	 * I picture), and a B picture adds its two anchors.
+	 * 
+	 * @param frame
+	 *            the frame to seek to
+	 * @return the pictures that would be decoded, and their size
+	 */
+	public SeekCost estimateSeekCost(int frame) throws IOException, MpegException {
+		if (frame < 0)
+			throw new FrameNotFoundException();
+
+		index();
+		initDecoderState();
+
+		List<Integer> plan;
+		if (frame == getCurrentFrame() || (frameCache != null && frameCache.contains(frame)))
+			plan = Collections.emptyList();
+		else
+			plan = decoderState.planSeek(frame);
+
+		long bytes = 0;
+		for (int i = 0; i < plan.size(); i++)
+			bytes += videoIndex.getSizeOfFrame(plan.get(i).intValue());
+		return new SeekCost(frame, plan, bytes);
+	}
+
+	/**
+	 * Moves to the frame after the current one, or to the first frame if
+	 * none has been decoded yet. Stepping through the frames this way
+	 * decodes each picture once, in coding order, reading forward through
+	 * the stream without repositioning it; B pictures are held back until
+	 * their turn in display order.
+	 * 
+	 * <pre>
+	 * while (decoder.nextFrame()) {
+	 * 	decoder.getPixels(buffer, PixelFormat.RGBA8);
+	 * 	...
+	 * }
+	 * </pre>
+	 * 
+	 * @return <code>false</code>, without moving, if the current frame is
+	 *         the last one
+	 */
+	public boolean nextFrame() throws IOException, MpegException {
+		int frame = getCurrentFrame() + 1;
+		if (frame >= getNumFrames())
+			return false;
+
+		seek(frame);
+		return true;
+	}
+
+	/**
+	 * Decodes a range of frames with one thread per processor, and hands
+	 * them to a consumer in display order. Up to 16 decoded frames per
+	 * thread wait to be delivered.
+	 * 
+	 * @see #decodeRange(int, int, FrameConsumer, int, int)
+	 */
+	public void decodeRange(int from, int to, FrameConsumer consumer) throws IOException, MpegException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		decodeRange(from, to, consumer, threads, 16 * threads);
+	}
+
+	/**
+	 * Decodes a range of frames on several threads, and hands them to a
+	 * consumer in display order. Each thread decodes whole Groups of
+	 * Pictures with its own copy of the video source, so this decoder's
+	 * current frame is not changed.
+	 * 
+	 * @param from
+	 *            the first frame
+	 * @param to
+	 *            the frame after the last frame
+	 * @param consumer
+	 *            receives the frames, on the calling thread
+	 * @param threads
+	 *            number of decoding threads
+	 * @param bufferedFrames
+	 *            number of decoded frames that may wait to be delivered;
+	 *            threads decoding later Groups of Pictures pause when it is
+	 *            reached
+	 */
+	public void decodeRange(int from, int to, FrameConsumer consumer, int threads, int bufferedFrames) throws IOException, MpegException {
+		index();
+		if (from < 0 || from > to || to > getNumFrames())
+			throw new FrameNotFoundException("frames " + from + " to " + to);
+		if (from == to)
+			return;
+
+		new RangeDecoder(this, from, to, bufferedFrames, getScale()).decode(consumer, threads);
+	}
+
+	/**
+	 * Decodes DC images of all frames with one thread per processor, and
+	 * hands them to a consumer in display order.
+	 * 
+	 * @see #decodeDCImages(int, int, FrameConsumer, int, int)
+	 */
+	public void decodeDCImages(FrameConsumer consumer) throws IOException, MpegException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		decodeDCImages(0, getNumFrames(), consumer, threads, 16 * threads);
+	}
+
+	/**
+	 * Decodes DC images of a range of frames, as for
+	 * {@link #decodeRange(int, int, FrameConsumer, int, int)}. A DC image
+	 * has one pixel for each 8x8 block, from the DC coefficient of the block
+	 * alone: the average of the block. The other coefficients are skipped
+	 * over without inverse quantization or inverse DCT, and motion
+	 * compensation predicts the DC images from one another, so this is many
+	 * times faster than decoding whole frames. The images are a frame
+	 * decoded at 1/8 scale, {@link #getFrameWidth()} / 8 by
+	 * {@link #getFrameHeight()} / 8 pixels, rounded up, whatever the scale
+	 * of this decoder.
+	 * 
+	 * @param from
+	 *            the first frame
+	 * @param to
+	 *            the frame after the last frame
+	 * @param consumer
+	 *            receives the DC images, on the calling thread
+	 * @param threads
+	 *            number of decoding threads
+	 * @param bufferedFrames
+	 *            number of DC images that may wait to be delivered
+	 * @see #setScale(int)
+	 */
+	public void decodeDCImages(int from, int to, FrameConsumer consumer, int threads, int bufferedFrames) throws IOException, MpegException {
+		index();
+		if (from < 0 || from > to || to > getNumFrames())
+			throw new FrameNotFoundException("frames " + from + " to " + to);
+		if (from == to)
+			return;
+
+		new RangeDecoder(this, from, to, bufferedFrames, 8).decode(consumer, threads);
+	}
+
 	public long getPosition() throws IOException, MpegException {
 		return getPosition(getCurrentFrame());
 	}
@@ -141,62 +537,471 @@ public class VideoDecoder {
 		videoIndex.index();
 	}
 
+	/**
+	 * Selects the inverse DCT used for pictures decoded from now on.
+	 * 
+	 * @param referenceIDCT
+	 *            <code>true</code> for the slow double precision reference
+	 *            transform, <code>false</code> (the default) for the fast
+	 *            integer transform
+	 */
+	public void setReferenceIDCT(boolean referenceIDCT) {
+		if (referenceIDCT != this.referenceIDCT) {
+			if (frameCache != null)
+				frameCache.clear();
+			if (checkpoints != null)
+				checkpoints.clear();
+		}
+		this.referenceIDCT = referenceIDCT;
+		if (prefetcher != null)
+			prefetcher.reset();
+	}
+
+	public boolean isReferenceIDCT() {
+		return referenceIDCT;
+	}
+
+	/**
+	 * Decodes frames at reduced resolution from now on, for previews and
+	 * thumbnails. Only the low frequency coefficients of each block are
+	 * transformed, into a smaller block, and motion vectors are scaled to
+	 * match; the images, pixels and thumbnails of the frames are
+	 * {@link #getScaledFrameWidth()} by {@link #getScaledFrameHeight()}.
+	 * Pictures predicted from others drift slightly from a scaled down full
+	 * size decode, until the next I picture. Cached frames and checkpoints
+	 * are dropped when the scale changes, and the current frame is decoded
+	 * again at the new scale.
+	 * 
+	 * @param scale
+	 *            1 (the default) for full size, or 2, 4 or 8 to divide the
+	 *            width and height by
+	 */
+	public void setScale(int scale) throws IOException, MpegException {
+		int shift;
+		switch (scale) {
+			case 1:
+				shift = 0;
+				break;
+			case 2:
+				shift = 1;
+				break;
+			case 4:
+				shift = 2;
+				break;
+			case 8:
+				shift = 3;
+				break;
+			default:
+				throw new IllegalArgumentException("Scale must be 1, 2, 4 or 8: " + scale);
+		}
+
+		if (shift != scaleShift) {
+			scaleShift = shift;
+			if (frameCache != null)
+				frameCache.clear();
+			if (checkpoints != null)
+				checkpoints.clear();
+			if (decoderState != null) {
+				decoderState.setScaleShift(shift);
+				if (currentFrame >= 0)
+					decoderState.seek(currentFrame);
+				currentFrameSkipped = false;
+			}
+			if (prefetcher != null)
+				prefetcher.reset();
+		}
+	}
+
+	public int getScale() {
+		return 1 << scaleShift;
+	}
+
+	int getScaleShift() {
+		return scaleShift;
+	}
+
+	/**
+	 * Decodes the slices of each picture in parallel from now on. Slices
+	 * reset all predictors, so once their start codes are located they can
+	 * be decoded independently; each task decodes whole slices into
+	 * disjoint macroblocks of the frame.
+	 * 
+	 * @param slicePool
+	 *            the pool to decode slices on, or <code>null</code> (the
+	 *            default) to decode them one after another on the calling
+	 *            thread
+	 */
+	public void setSlicePool(ForkJoinPool slicePool) {
+		this.slicePool = slicePool;
+	}
+
+	public ForkJoinPool getSlicePool() {
+		return slicePool;
+	}
+
+	/**
+	 * Keeps copies of the frames seeked to, so that seeking to one of them
+	 * again just copies it back instead of decoding it and the pictures it
+	 * is predicted from. When the budget is exceeded the least recently
+	 * seeked frames are dropped. A frame takes 1.5 bytes per pel of its
+	 * macroblocks, about 1.4 MB for 1280x720.
+	 * 
+	 * @param maxBytes
+	 *            the most memory to hold cached frames in, or 0 (the default)
+	 *            to cache nothing
+	 */
+	public void setFrameCacheSize(long maxBytes) {
+		if (maxBytes <= 0)
+			frameCache = null;
+		else if (frameCache == null)
+			frameCache = new FrameCache(maxBytes);
+		else
+			frameCache.setMaxBytes(maxBytes);
+	}
+
+	public long getFrameCacheSize() {
+		return (frameCache != null) ? frameCache.getMaxBytes() : 0;
+	}
+
+	/**
+	 * Keeps copies of P pictures decoded along the way, one in each interval
+	 * of frames, as starting points for later seeks. Without them, reaching
+	 * a P picture deep in a long Group of Pictures decodes every P picture
+	 * back to the I picture each time. The least recently used copies are
+	 * dropped when the budget is exceeded.
+	 * 
+	 * @param interval
+	 *            number of frames between checkpoints
+	 * @param maxBytes
+	 *            the most memory to hold checkpoints in, or 0 (the default)
+	 *            to keep none
+	 */
+	public void setCheckpoints(int interval, long maxBytes) {
+		if (interval <= 0 || maxBytes <= 0) {
+			checkpoints = null;
+			checkpointInterval = 0;
+			return;
+		}
+
+		if (checkpoints == null || interval != checkpointInterval)
+			checkpoints = new FrameCache(maxBytes);
+		else
+			checkpoints.setMaxBytes(maxBytes);
+		checkpointInterval = interval;
+	}
+
+	public int getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	public long getCheckpointsSize() {
+		return (checkpoints != null) ? checkpoints.getMaxBytes() : 0;
+	}
+
+	FrameCache getCheckpoints() {
+		return checkpoints;
+	}
+
+	/**
+	 * Decodes the frames after the current one on a thread of its own, while
+	 * the caller works with the current frame, so that seeking to the next
+	 * frame usually just copies it. A seek anywhere else drops the frames
+	 * decoded ahead, and is decoded on the calling thread as usual. The
+	 * thread has its own copy of the video source, and holds a copy of each
+	 * frame decoded ahead.
+	 * 
+	 * @param frames
+	 *            how many frames to decode ahead, or 0 (the default) to stop
+	 *            the thread
+	 */
+	public void setPrefetch(int frames) throws IOException, MpegException {
+		if (prefetcher != null) {
+			if (frames == prefetcher.getFrames())
+				return;
+			prefetcher.close();
+			prefetcher = null;
+		}
+		if (frames > 0) {
+			index();
+			prefetcher = new Prefetcher(this, frames);
+		}
+	}
+
+	public int getPrefetch() {
+		return (prefetcher != null) ? prefetcher.getFrames() : 0;
+	}
+
+	FrameBuffer getCurrentFrameBuffer() {
+		return decoderState.getCurrentFrameBuffer();
+	}
+
 	public BufferedImage getImage() throws IOException, MpegException {
-		BufferedImage img = new BufferedImage(getFrameWidth(), getFrameHeight(), BufferedImage.TYPE_INT_RGB);
-		img.setRGB(0, 0, getFrameWidth(), getFrameHeight(), getRawPixels(), 0, getFrameWidth());
-		return img;
+		return getImage(new BufferedImage(getScaledFrameWidth(), getScaledFrameHeight(), BufferedImage.TYPE_INT_RGB));
 	}
 
-	public int[] getRawPixels() throws IOException, MpegException {
-		return convertYCbCrToRGB(decoderState.getCurrentYCbCr());
+	/**
+	 * Draws the current frame into the top left corner of an existing
+	 * image. Images of <code>TYPE_INT_RGB</code>, <code>TYPE_INT_ARGB</code>
+	 * and <code>TYPE_INT_ARGB_PRE</code> are written directly into their
+	 * <code>DataBufferInt</code>; other types go through
+	 * <code>setRGB</code>.
+	 * 
+	 * @param image
+	 *            an image at least as large as the frame
+	 * @return <code>image</code>
+	 */
+	public BufferedImage getImage(BufferedImage image) throws IOException, MpegException {
+		int width = getScaledFrameWidth();
+		int height = getScaledFrameHeight();
+		if (image.getWidth() < width || image.getHeight() < height)
+			throw new IllegalArgumentException("Image is smaller than the frame (" + width + "x" + height + ").");
+
+		WritableRaster raster = image.getRaster();
+		switch (image.getType()) {
+			case BufferedImage.TYPE_INT_RGB:
+			case BufferedImage.TYPE_INT_ARGB:
+			case BufferedImage.TYPE_INT_ARGB_PRE:
+				if (raster.getDataBuffer() instanceof DataBufferInt && raster.getSampleModel() instanceof SinglePixelPackedSampleModel) {
+					DataBufferInt dataBuffer = (DataBufferInt) raster.getDataBuffer();
+					SinglePixelPackedSampleModel sampleModel = (SinglePixelPackedSampleModel) raster.getSampleModel();
+					int offset = dataBuffer.getOffset() + sampleModel.getOffset(-raster.getSampleModelTranslateX(), -raster.getSampleModelTranslateY());
+					ColorConverter.convert(decoderState.getCurrentFrameBuffer(), width, height, dataBuffer.getData(), offset, sampleModel.getScanlineStride());
+					return image;
+				}
+		}
+
+		image.setRGB(0, 0, width, height, getRawPixels(), 0, width);
+		return image;
 	}
 
-	private int[] convertYCbCrToRGB(int pixelData[]) {
-		int result[] = new int[pixelData.length];
-		for (int i = 0; i < result.length; i++) {
-			result[i] = convertYCbCrToRGB(pixelData[i]);
+	/**
+	 * Makes a scaled down image of the current frame. Each pixel averages
+	 * the samples of the area it covers, before color conversion.
+	 * 
+	 * @param width
+	 *            width of the thumbnail
+	 * @param height
+	 *            height of the thumbnail
+	 * @return a new <code>TYPE_INT_RGB</code> image
+	 */
+	public BufferedImage getThumbnail(int width, int height) throws IOException, MpegException {
+		if (width < 1 || height < 1)
+			throw new IllegalArgumentException("Bad thumbnail size " + width + "x" + height + ".");
+
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		int pixels[] = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		ColorConverter.convertScaled(decoderState.getCurrentFrameBuffer(), getScaledFrameWidth(), getScaledFrameHeight(), width, height, pixels);
+		return image;
+	}
+
+	/**
+	 * Makes thumbnails of keyframes spread evenly over the video, with one
+	 * thread per processor.
+	 * 
+	 * @param count
+	 *            the most thumbnails to make; fewer are made if the video
+	 *            has fewer keyframes
+	 * @param width
+	 *            width of the thumbnails
+	 * @param height
+	 *            height of the thumbnails
+	 * @return the thumbnails, in frame order
+	 * @see #getKeyframes()
+	 */
+	public BufferedImage[] getThumbnails(int count, int width, int height) throws IOException, MpegException {
+		int keyframes[] = getKeyframes();
+		int frames[] = keyframes;
+		if (count < keyframes.length) {
+			frames = new int[Math.max(0, count)];
+			for (int i = 0; i < frames.length; i++)
+				frames[i] = keyframes[(int) ((2L * i + 1) * keyframes.length / (2L * frames.length))];
 		}
+		return getThumbnails(frames, width, height, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Makes thumbnails of some frames. Keyframes take one picture each to
+	 * decode; other frames also need the pictures they are predicted from.
+	 * With more than one thread, each thread decodes with its own copy of
+	 * the video source, and this decoder's current frame is not changed.
+	 * 
+	 * @param frames
+	 *            the frames
+	 * @param width
+	 *            width of the thumbnails
+	 * @param height
+	 *            height of the thumbnails
+	 * @param threads
+	 *            number of decoding threads
+	 * @return the thumbnails, in the order of <code>frames</code>
+	 */
+	public BufferedImage[] getThumbnails(int frames[], int width, int height, int threads) throws IOException, MpegException {
+		index();
+		for (int i = 0; i < frames.length; i++) {
+			if (frames[i] < 0 || frames[i] >= getNumFrames())
+				throw new FrameNotFoundException("frame " + frames[i]);
+		}
+		if (width < 1 || height < 1)
+			throw new IllegalArgumentException("Bad thumbnail size " + width + "x" + height + ".");
+
+		if (threads <= 1 || frames.length <= 1) {
+			BufferedImage result[] = new BufferedImage[frames.length];
+			for (int i = 0; i < frames.length; i++) {
+				seek(frames[i]);
+				result[i] = getThumbnail(width, height);
+			}
+			return result;
+		}
+		return new ThumbnailDecoder(this, frames, width, height).decode(threads);
+	}
+
+	/**
+	 * Lists the keyframes, the I pictures, which decode on their own.
+	 * 
+	 * @return the frame numbers, in order
+	 */
+	public int[] getKeyframes() throws IOException, MpegException {
+		index();
+		List<Integer> keyframes = videoIndex.getIFrames();
+		int result[] = new int[keyframes.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = keyframes.get(i).intValue();
+		return result;
+	}
+
+	public int[] getRawPixels() throws IOException, MpegException {
+		int width = getScaledFrameWidth();
+		int result[] = new int[width * getScaledFrameHeight()];
+		getRawPixels(result, 0, width);
 		return result;
 	}
 
 	/**
-	 * Converts YCbCr pixel data into RGB pixel data.
+	 * Converts the current frame into RGB pixel data in an existing array.
+	 * Each Cb and Cr sample is used for the 2x2 pels it covers.
 	 * 
-	 * @param packedYCbCrValue
-	 *            YCbCr pixel value. First byte is discarded, second byte is Y, third byte is Cb, fourth byte is Cr.
-	 * @return rgb value
+	 * @param pixels
+	 *            receives rgb values of the visible part of the frame
+	 * @param offset
+	 *            index in <code>pixels</code> of the top left pixel
+	 * @param scanline
+	 *            distance in <code>pixels</code> between the starts of rows,
+	 *            at least the frame width
 	 */
-	private int convertYCbCrToRGB(int packedYCbCrValue) {
-		int Y = (packedYCbCrValue & 0x00FF0000) >>> 16;
-		int Cb = (packedYCbCrValue & 0x0000FF00) >>> 8;
-		int Cr = (packedYCbCrValue & 0x000000FF);
-		return convertYCbCrToRGB(Y, Cb, Cr);
+	public void getRawPixels(int pixels[], int offset, int scanline) throws IOException, MpegException {
+		int width = getScaledFrameWidth();
+		int height = getScaledFrameHeight();
+		if (offset < 0 || scanline < width || offset + (long) (height - 1) * scanline + width > pixels.length)
+			throw new IllegalArgumentException("Array too small for a " + width + "x" + height + " frame.");
+
+		ColorConverter.convert(decoderState.getCurrentFrameBuffer(), width, height, pixels, offset, scanline);
 	}
 
 	/**
-	 * Converts YCbCr pixel data into RGB pixel data.
+	 * Converts the current frame into RGB pixel data in a buffer, row by
+	 * row, from the buffer's position on. The position is advanced past the
+	 * frame.
 	 * 
-	 * @param Y
-	 *            value
-	 * @param Cb
-	 *            value
-	 * @param Cr
-	 *            value
-	 * @return the RGB value
+	 * @param buffer
+	 *            with at least width * height ints remaining
 	 */
-	private int convertYCbCrToRGB(int Y, int Cb, int Cr) {
-		float Ycalc = (1.164f * (Y - 16));
-		int Cbcalc = (Cb - 128);
-		int Crcalc = (Cr - 128);
+	public void getRawPixels(IntBuffer buffer) throws IOException, MpegException {
+		int width = getScaledFrameWidth();
+		int height = getScaledFrameHeight();
+		if (buffer.remaining() < width * height)
+			throw new IllegalArgumentException("Buffer too small for a " + width + "x" + height + " frame.");
+
+		FrameBuffer frame = decoderState.getCurrentFrameBuffer();
+		if (buffer.hasArray()) {
+			ColorConverter.convert(frame, width, height, buffer.array(), buffer.arrayOffset() + buffer.position(), width);
+			((Buffer) buffer).position(buffer.position() + width * height);
+		} else {
+			if (rowPixels.length < width)
+				rowPixels = new int[width];
+			for (int i = 0; i < height; i++) {
+				ColorConverter.convertRow(frame, i, width, rowPixels, 0);
+				buffer.put(rowPixels, 0, width);
+			}
+		}
+	}
 
-		int red = (int) (Ycalc + 1.402f * Crcalc);
-		int green = (int) (Ycalc - 0.34414f * Cbcalc - 0.71414f * Crcalc);
-		int blue = (int) (Ycalc + 1.772f * Cbcalc);
+	/**
+	 * Writes the current frame into a buffer, from the buffer's position on,
+	 * in a layout that can be uploaded as it is to a texture. The position
+	 * is advanced past the frame. The planar formats copy the decoded
+	 * samples without any color conversion.
+	 * 
+	 * @param buffer
+	 *            with at least <code>format.getFrameSize(width, height)</code>
+	 *            bytes remaining; usually a direct buffer
+	 * @param format
+	 *            the layout of the frame in <code>buffer</code>
+	 */
+	public void getPixels(ByteBuffer buffer, PixelFormat format) throws IOException, MpegException {
+		int width = getScaledFrameWidth();
+		int height = getScaledFrameHeight();
+		if (buffer.remaining() < format.getFrameSize(width, height))
+			throw new IllegalArgumentException("Buffer too small for a " + width + "x" + height + " " + format + " frame.");
+
+		FrameBuffer frame = decoderState.getCurrentFrameBuffer();
+		switch (format) {
+			case RGBA8:
+			case BGRA8:
+				putPackedPixels(buffer, frame, width, height, format == PixelFormat.RGBA8);
+				break;
+			case I420:
+				putPlane(buffer, frame.getY(), frame.getWidth(), width, height);
+				putPlane(buffer, frame.getCb(), frame.getChromaWidth(), (width + 1) / 2, (height + 1) / 2);
+				putPlane(buffer, frame.getCr(), frame.getChromaWidth(), (width + 1) / 2, (height + 1) / 2);
+				break;
+			case NV12:
+				putPlane(buffer, frame.getY(), frame.getWidth(), width, height);
+				putInterleavedChroma(buffer, frame, (width + 1) / 2, (height + 1) / 2);
+				break;
+		}
+	}
 
-		red = clamp(red);
-		green = clamp(green);
-		blue = clamp(blue);
-		return packPixel(red, green, blue);
+	/**
+	 * Writes converted pixels as little-endian ints, so that each ARGB value
+	 * is stored as the bytes B, G, R, A. For RGBA the red and blue channels
+	 * are swapped first.
+	 */
+	private void putPackedPixels(ByteBuffer buffer, FrameBuffer frame, int width, int height, boolean swapRedBlue) {
+		IntBuffer ints = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+		if (rowPixels.length < width)
+			rowPixels = new int[width];
+		for (int i = 0; i < height; i++) {
+			ColorConverter.convertRow(frame, i, width, rowPixels, 0);
+			if (swapRedBlue) {
+				for (int j = 0; j < width; j++) {
+					int argb = rowPixels[j];
+					rowPixels[j] = (argb & 0xFF00FF00) | ((argb >> 16) & 0xFF) | ((argb & 0xFF) << 16);
+				}
+			}
+			ints.put(rowPixels, 0, width);
+		}
+		((Buffer) buffer).position(buffer.position() + 4 * width * height);
+	}
+
+	private static void putPlane(ByteBuffer buffer, byte plane[], int stride, int width, int height) {
+		for (int i = 0; i < height; i++)
+			buffer.put(plane, i * stride, width);
+	}
+
+	private void putInterleavedChroma(ByteBuffer buffer, FrameBuffer frame, int width, int height) {
+		byte cb[] = frame.getCb();
+		byte cr[] = frame.getCr();
+		int stride = frame.getChromaWidth();
+		if (rowSamples.length < 2 * width)
+			rowSamples = new byte[2 * width];
+		for (int i = 0; i < height; i++) {
+			int pos = i * stride;
+			for (int j = 0; j < width; j++) {
+				rowSamples[2 * j] = cb[pos + j];
+				rowSamples[2 * j + 1] = cr[pos + j];
+			}
+			buffer.put(rowSamples, 0, 2 * width);
+		}
 	}
 
 	/**
@@ -209,20 +1014,4 @@ public class VideoDecoder {
 	public static int clamp(int componentValue) {
 		return (componentValue < 0) ? 0 : (componentValue > 255) ? 255 : componentValue;
 	}
-
-	/**
-	 * Packs three color components into one integer. Color
-	 * components should be <code>clamp()</code>ed.
-	 * 
-	 * @param component1
-	 *            the first color channel value
-	 * @param component2
-	 *            the second color channel value
-	 * @param component3
-	 *            the third color channel value
-	 * @return the packed color
-	 */
-	private int packPixel(int component1, int component2, int component3) {
-		return 0xFF000000 | (component1 << 16) | (component2 << 8) | (component3);
-	}
 }
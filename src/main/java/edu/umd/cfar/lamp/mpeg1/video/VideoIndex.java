@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import edu.columbia.ee.flavor.Bitstream;
+import edu.umd.cfar.lamp.mpeg1.ByteBufferBitstream;
 import edu.umd.cfar.lamp.mpeg1.IndexException;
 import edu.umd.cfar.lamp.mpeg1.MpegException;
 import edu.umd.cfar.lamp.mpeg1.UnsupportedIndexVersionException;
@@ -34,6 +35,9 @@ public class VideoIndex {
 	private VideoDecoder videoDecoder = null;
 	private IndexerState indexerState = new IndexerState();
 
+	// bitstream for indexing, shared by all the GOPs
+	private ByteBufferBitstream indexBitstream = null;
+
 	public VideoIndex(VideoDecoder videoDecoder) {
 		this.videoDecoder = videoDecoder;
 	}
@@ -104,6 +108,23 @@ public class VideoIndex {
 		return indexerState;
 	}
 
+	/**
+	 * Positions the bitstream used for indexing. It reads views of the
+	 * video source, so it does not disturb the decoder; it is only created
+	 * the first time.
+	 * 
+	 * @param position
+	 *            byte position in the video stream
+	 * @return the bitstream, starting at <code>position</code>
+	 */
+	Bitstream getIndexBitstream(long position) throws IOException, MpegException {
+		if (indexBitstream == null)
+			indexBitstream = new ByteBufferBitstream(getVideoSource(), position);
+		else
+			indexBitstream.seek(position);
+		return indexBitstream;
+	}
+
 	public int getMbWidth(int frame) throws IOException, MpegException {
 		return getSequenceHeader(frame).getMbWidth();
 	}
@@ -119,7 +140,7 @@ public class VideoIndex {
 	public void index() throws IOException, MpegException {
 		if (!indexed()) {
 			index = new ArrayList<>();
-			VideoSequence.index(new Bitstream(getVideoSource().copySource()), indexerState, this);
+			VideoSequence.index(getIndexBitstream(0), indexerState, this);
 		}
 	}
 
@@ -129,9 +150,7 @@ public class VideoIndex {
 
 	public void getFirstSequenceHeader() throws IOException, MpegException {
 		if (firstSequenceHeader == null) {
-			VideoSource videoSource = getVideoSource().copySource();
-			firstSequenceHeader = VideoSequence.getFirstSequenceHeader(new Bitstream(videoSource));
-			videoSource.close();
+			firstSequenceHeader = VideoSequence.getFirstSequenceHeader(getIndexBitstream(0));
 		}
 	}
 
@@ -236,6 +255,10 @@ public class VideoIndex {
 		return index.get(groupOfPicturesNumber).getStartPicture();
 	}
 
+	public int getNumFrames(int groupOfPicturesNumber) {
+		return index.get(groupOfPicturesNumber).getNumPictures();
+	}
+
 	public int getNumFrames() {
 		if (index == null)
 			return 0;
@@ -253,6 +276,12 @@ public class VideoIndex {
 		return vie.getPositionOfPicture(n);
 	}
 
+	public long getSizeOfFrame(int n) throws IOException, MpegException {
+		int gopNumber = getGroupOfPicturesNumberForFrame(n);
+		VideoIndexElement vie = index.get(gopNumber);
+		return vie.getSizeOfPicture(n);
+	}
+
 	public int getLastIOrPFrame(int n) throws IOException, MpegException {
 		int gopNumber = getGroupOfPicturesNumberForFrame(n);
 		VideoIndexElement vie = index.get(gopNumber);
@@ -268,6 +297,59 @@ public class VideoIndex {
 		}
 	}
 
+	/**
+	 * @return the last I frame at or before (0-based) frame <code>n</code>
+	 * @throws FrameNotFoundException
+	 *             if there is none
+	 */
+	public int getIFrameAtOrBefore(int n) throws IOException, MpegException {
+		for (int gopNumber = getGroupOfPicturesNumberForFrame(n); gopNumber >= 0; gopNumber--) {
+			try {
+				return index.get(gopNumber).getIPictureAtOrBefore(n);
+			} catch (FrameNotFoundException fnfe) {
+				// no I picture early enough in this GOP
+			}
+		}
+		throw new FrameNotFoundException("No I frame at or before frame " + n);
+	}
+
+	/**
+	 * @return the first I frame at or after (0-based) frame <code>n</code>
+	 * @throws FrameNotFoundException
+	 *             if there is none
+	 */
+	public int getIFrameAtOrAfter(int n) throws IOException, MpegException {
+		for (int gopNumber = getGroupOfPicturesNumberForFrame(n); gopNumber < index.size(); gopNumber++) {
+			try {
+				return index.get(gopNumber).getIPictureAtOrAfter(n);
+			} catch (FrameNotFoundException fnfe) {
+				// no I picture late enough in this GOP
+			}
+		}
+		throw new FrameNotFoundException("No I frame at or after frame " + n);
+	}
+
+	/**
+	 * @return the I frames, in order
+	 */
+	public List<Integer> getIFrames() throws IOException, MpegException {
+		List<Integer> result = new ArrayList<Integer>();
+		for (int gopNumber = 0; gopNumber < index.size(); gopNumber++) {
+			VideoIndexElement vie = index.get(gopNumber);
+			int frame = vie.getStartPicture();
+			try {
+				while (frame <= vie.getLastPicture()) {
+					frame = vie.getIPictureAtOrAfter(frame);
+					result.add(frame);
+					frame++;
+				}
+			} catch (FrameNotFoundException fnfe) {
+				// no more I pictures in this GOP
+			}
+		}
+		return result;
+	}
+
 	public byte getPictureCodingTypeOfFrame(int n) throws IOException, MpegException {
 		int gopNumber = getGroupOfPicturesNumberForFrame(n);
 		VideoIndexElement vie = index.get(gopNumber);
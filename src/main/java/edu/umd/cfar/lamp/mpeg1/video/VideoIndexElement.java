@@ -15,7 +15,6 @@ package edu.umd.cfar.lamp.mpeg1.video;
 import java.io.DataOutput;
 import java.io.IOException;
 
-import edu.columbia.ee.flavor.Bitstream;
 import edu.umd.cfar.lamp.mpeg1.MpegException;
 
 /** Represents one Group of Pictures within a <code>VideoIndex</code>. */
@@ -101,10 +100,7 @@ public class VideoIndexElement implements Comparable<VideoIndexElement> {
 	public void indexGop() throws IOException, MpegException {
 		if (!gopIndexed()) {
 			gopIndex = new GroupOfPicturesIndex();
-			VideoSource videoSource = videoIndex.getVideoSource().copySource();
-			videoSource.seek(startPosition);
-			GroupOfPictures.index(new Bitstream(videoSource), videoIndex.getIndexerState(), gopIndex);
-			videoSource.close();
+			GroupOfPictures.index(videoIndex.getIndexBitstream(startPosition), videoIndex.getIndexerState(), gopIndex);
 		}
 	}
 
@@ -123,6 +119,21 @@ public class VideoIndexElement implements Comparable<VideoIndexElement> {
 		return gopIndex.getPositionOfPicture(n - getStartPicture()) + getStartPosition();
 	}
 
+	/**
+	 * @param n
+	 *            the frame
+	 * @return the number of bytes of the (zero-based) <code>n</code>th
+	 *         picture (frame).
+	 */
+	public long getSizeOfPicture(int n) throws IOException, MpegException {
+		if (!containsPicture(n))
+			throw new FrameNotFoundException("Frame " + n + " not in " + this);
+
+		indexGop();
+
+		return gopIndex.getSizeOfPicture(n - getStartPicture());
+	}
+
 	public int getLastIOrPPicture(int n) throws IOException, MpegException {
 		int comparison = findPicture(n);
 		if (comparison < 0)
@@ -134,6 +145,32 @@ public class VideoIndexElement implements Comparable<VideoIndexElement> {
 			return gopIndex.getLastIOrPPicture(n - getStartPicture()) + getStartPicture();
 	}
 
+	/**
+	 * @param n
+	 *            a frame in or after this Group of Pictures
+	 * @return the last I picture of this Group of Pictures at or before
+	 *         <code>n</code>
+	 */
+	public int getIPictureAtOrBefore(int n) throws IOException, MpegException {
+		if (findPicture(n) < 0)
+			throw new FrameNotFoundException("Searching the wrong VideoIndexElement.");
+		indexGop();
+		return gopIndex.getIPictureAtOrBefore(n - getStartPicture()) + getStartPicture();
+	}
+
+	/**
+	 * @param n
+	 *            a frame in or before this Group of Pictures
+	 * @return the first I picture of this Group of Pictures at or after
+	 *         <code>n</code>
+	 */
+	public int getIPictureAtOrAfter(int n) throws IOException, MpegException {
+		if (findPicture(n) > 0)
+			throw new FrameNotFoundException("Searching the wrong VideoIndexElement.");
+		indexGop();
+		return gopIndex.getIPictureAtOrAfter(n - getStartPicture()) + getStartPicture();
+	}
+
 	public byte getPictureCodingTypeOfPicture(int n) throws IOException, MpegException {
 		if (!containsPicture(n))
 			throw new FrameNotFoundException();
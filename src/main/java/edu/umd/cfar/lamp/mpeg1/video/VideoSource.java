@@ -17,12 +17,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
+import edu.umd.cfar.lamp.mpeg1.ByteBufferBitstream;
+import edu.umd.cfar.lamp.mpeg1.MappedFile;
 import edu.umd.cfar.lamp.mpeg1.Mpeg1SystemStream;
 import edu.umd.cfar.lamp.mpeg1.MpegException;
 
-public class VideoSource extends InputStream {
+public class VideoSource extends InputStream implements ByteBufferBitstream.ViewSource {
 	public static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
 
 	private static Logger logger = Logger.getLogger("edu.umd.cfar.lamp.mpeg1.video");
@@ -30,6 +33,7 @@ public class VideoSource extends InputStream {
 	private File file = null;
 	private RandomAccessFile rafile = null;
 	private Mpeg1SystemStream stream = null;
+	private MappedFile mappedFile = null;
 
 	private byte[] buffer;
 	private int currentBufferPosition = 0;
@@ -94,6 +98,27 @@ public class VideoSource extends InputStream {
 		unreadBytesInBuffer = 0;
 	}
 
+	/**
+	 * Gets a view of the video stream starting at the given position, without
+	 * copying: the rest of the mapped chunk of the file for an elementary
+	 * stream, or the rest of the packet payload for a system stream. Views are
+	 * independent of each other and of the position used by
+	 * <code>read()</code>.
+	 * 
+	 * @param position
+	 *            byte position in the video stream
+	 * @return the view, or <code>null</code> at the end of the stream
+	 */
+	@Override
+	public ByteBuffer getView(long position) throws IOException {
+		if (isSystemStream())
+			return stream.getPayloadView(position);
+
+		if (mappedFile == null)
+			mappedFile = new MappedFile(rafile.getChannel());
+		return mappedFile.getView(position);
+	}
+
 	// === InputStream ==========================================================================
 	@Override
 	public int available() throws IOException {
@@ -0,0 +1,133 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import java.io.IOException;
+
+import edu.columbia.ee.flavor.Bitstream;
+import edu.umd.cfar.lamp.mpeg1.ByteBufferBitstream;
+import edu.umd.cfar.lamp.mpeg1.ParsingException;
+
+/**
+ * Lookup-table decoder for the variable length codes of ISO/IEC 11172-2
+ * Annex B. The longest code is peeked once, resolved through a primary
+ * table indexed by its leading bits (and, for long codes, a secondary
+ * table indexed by the remaining bits), and then skipped once.
+ */
+final class VlcTable {
+	// entry layout: (value << 8) | LINK? | length; an entry of 0 is an invalid code
+	private static final int LINK = 0x80;
+	private static final int LENGTH_MASK = 0x7F;
+
+	private final String name;
+	private final int maxLength;
+	private final int primaryBits;
+	private final int table[];
+
+	/**
+	 * Builds a lookup table.
+	 *
+	 * @param name
+	 *            name of the table, used in error messages
+	 * @param primaryBits
+	 *            number of leading bits resolved by the primary table
+	 * @param codes
+	 *            the codes, as <code>{ code, length, value }</code> triples
+	 */
+	public VlcTable(String name, int primaryBits, int codes[][]) {
+		this.name = name;
+
+		int max = 0;
+		for (int i = 0; i < codes.length; i++)
+			max = Math.max(max, codes[i][1]);
+		this.maxLength = max;
+		this.primaryBits = Math.min(primaryBits, max);
+
+		// find how many extra bits each primary slot has to resolve
+		int subBits[] = new int[1 << this.primaryBits];
+		for (int i = 0; i < codes.length; i++) {
+			int length = codes[i][1];
+			if (length > this.primaryBits) {
+				int slot = codes[i][0] >>> (length - this.primaryBits);
+				subBits[slot] = Math.max(subBits[slot], length - this.primaryBits);
+			}
+		}
+
+		int size = 1 << this.primaryBits;
+		for (int slot = 0; slot < subBits.length; slot++) {
+			if (subBits[slot] > 0)
+				size += 1 << subBits[slot];
+		}
+		table = new int[size];
+
+		int next = 1 << this.primaryBits;
+		for (int slot = 0; slot < subBits.length; slot++) {
+			if (subBits[slot] > 0) {
+				table[slot] = (next << 8) | LINK | subBits[slot];
+				next += 1 << subBits[slot];
+			}
+		}
+
+		for (int i = 0; i < codes.length; i++) {
+			int code = codes[i][0];
+			int length = codes[i][1];
+			int entry = (codes[i][2] << 8) | length;
+
+			int start, count;
+			if (length <= this.primaryBits) {
+				start = code << (this.primaryBits - length);
+				count = 1 << (this.primaryBits - length);
+			} else {
+				int link = table[code >>> (length - this.primaryBits)];
+				int sub = link & LENGTH_MASK;
+				int rest = length - this.primaryBits;
+				start = (link >>> 8) + ((code & ((1 << rest) - 1)) << (sub - rest));
+				count = 1 << (sub - rest);
+			}
+
+			for (int j = start; j < start + count; j++) {
+				if (table[j] != 0)
+					throw new IllegalArgumentException("Codes for " + name + " are not prefix-free.");
+				table[j] = entry;
+			}
+		}
+	}
+
+	/**
+	 * Decodes one code from the bitstream and skips over it.
+	 *
+	 * @return the value associated with the code
+	 * @throws ParsingException
+	 *             if the next bits are not a valid code
+	 */
+	public int decode(Bitstream bitstream) throws IOException {
+		int bits;
+		if (bitstream instanceof ByteBufferBitstream)
+			bits = ((ByteBufferBitstream) bitstream).showbits32() >>> (32 - maxLength);
+		else
+			bits = bitstream.nextbits(maxLength);
+		int entry = table[bits >>> (maxLength - primaryBits)];
+
+		if ((entry & LINK) != 0) {
+			int sub = entry & LENGTH_MASK;
+			entry = table[(entry >>> 8) + ((bits >>> (maxLength - primaryBits - sub)) & ((1 << sub) - 1))];
+		}
+
+		int length = entry & LENGTH_MASK;
+		if (length == 0)
+			throw new ParsingException("VLC decode for " + name + " failed.");
+
+		bitstream.skipbits(length);
+		return entry >> 8;
+	}
+}
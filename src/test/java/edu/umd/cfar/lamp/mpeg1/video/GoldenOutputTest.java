@@ -0,0 +1,141 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import org.junit.Test;
+
+import edu.columbia.ee.flavor.Bitstream;
+import edu.umd.cfar.lamp.mpeg1.Mpeg1File;
+import edu.umd.cfar.lamp.mpeg1.Mpeg1VideoStream;
+import edu.umd.cfar.lamp.mpeg1.MpegException;
+
+/**
+ * Decodes small streams and compares a checksum of the samples of each
+ * frame with the checksums of the frames decoded by the nested
+ * <code>switch</code> parsers, before the VLC lookup tables. The reference
+ * IDCT is used, as the fast one rounds differently, and the samples are
+ * compared before color conversion, which has changed since.
+ *
+ * gop.m1v is 64x48, with I, P and B pictures in open and closed GOPs and
+ * escaped coefficients; halfpel.m1v is 48x32, with half-pel motion vectors;
+ * halfpel.mpg is the same video in a system stream.
+ */
+public class GoldenOutputTest {
+	private static final String streams[] = { "gop.m1v", "halfpel.m1v", "halfpel.mpg" };
+
+	@Test
+	public void testSequentialSeeks() throws IOException, MpegException {
+		for (String name : streams) {
+			Mpeg1VideoStream stream = open(name);
+			long expected[] = readChecksums(name);
+			assertEquals(name + " frames", expected.length, stream.getNumFrames());
+			for (int frame = 0; frame < expected.length; frame++) {
+				stream.seek(frame);
+				assertEquals(name + " frame " + frame, expected[frame], checksum(stream));
+			}
+		}
+	}
+
+	@Test
+	public void testRandomSeeks() throws IOException, MpegException {
+		Random random = new Random(1);
+		for (String name : streams) {
+			Mpeg1VideoStream stream = open(name);
+			long expected[] = readChecksums(name);
+			for (int i = 0; i < 3 * expected.length; i++) {
+				int frame = random.nextInt(expected.length);
+				stream.seek(frame);
+				assertEquals(name + " frame " + frame, expected[frame], checksum(stream));
+			}
+		}
+	}
+
+	/**
+	 * Parses the elementary streams through <code>parse</code> rather than
+	 * <code>decode</code>, which must read them to the sequence_end_code.
+	 */
+	@Test
+	public void testParse() throws IOException, URISyntaxException {
+		for (String name : streams) {
+			if (!name.endsWith(".m1v"))
+				continue;
+			InputStream in = new FileInputStream(getFile(name));
+			try {
+				new VideoSequence().parse(new Bitstream(in), new ParserState());
+			} finally {
+				in.close();
+			}
+		}
+	}
+
+	private static Mpeg1VideoStream open(String name) throws IOException, MpegException {
+		try {
+			Mpeg1VideoStream stream = new Mpeg1File(getFile(name)).getVideoStream();
+			stream.getVideoDecoder().setReferenceIDCT(true);
+			return stream;
+		} catch (URISyntaxException e) {
+			throw new IOException(e.toString());
+		}
+	}
+
+	private static File getFile(String name) throws URISyntaxException {
+		return new File(GoldenOutputTest.class.getResource(name).toURI());
+	}
+
+	/**
+	 * @return the checksums in <code>name</code>.crc, one per frame
+	 */
+	private static long[] readChecksums(String name) throws IOException {
+		List<Long> checksums = new ArrayList<Long>();
+		BufferedReader in = new BufferedReader(new InputStreamReader(GoldenOutputTest.class.getResourceAsStream(name + ".crc"), "US-ASCII"));
+		try {
+			for (String line = in.readLine(); line != null; line = in.readLine()) {
+				if (line.length() > 0)
+					checksums.add(Long.parseLong(line, 16));
+			}
+		} finally {
+			in.close();
+		}
+
+		long result[] = new long[checksums.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = checksums.get(i);
+		return result;
+	}
+
+	/**
+	 * @return CRC-32 of the current frame, as I420 samples
+	 */
+	private static long checksum(Mpeg1VideoStream stream) throws IOException, MpegException {
+		ByteBuffer samples = ByteBuffer.allocate(PixelFormat.I420.getFrameSize(stream.getFrameWidth(), stream.getFrameHeight()));
+		stream.getPixels(samples, PixelFormat.I420);
+		CRC32 crc = new CRC32();
+		crc.update(samples.array(), 0, samples.capacity());
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,344 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks the fast inverse DCTs against the reference transform, following
+ * the procedure of IEEE 1180: random blocks of pels in [-L, H] are forward
+ * transformed, rounded and clipped to [-2048, 2047], and inverse transformed
+ * by both; the results are clipped to [-256, 255] and compared. The same is
+ * done with the signs of the pels reversed.
+ */
+public class InverseDCTTest {
+	private static final int BLOCKS = 10000;
+
+	// the input ranges of IEEE 1180, as { L, H }
+	private static final int ranges[][] = { { 256, 255 }, { 5, 5 }, { 300, 300 } };
+
+	// cos[k][j] = C(k) / 2 * cos((2j+1) k pi / 16)
+	private static final double cos[][] = new double[8][8];
+
+	static {
+		for (int k = 0; k < 8; k++) {
+			for (int j = 0; j < 8; j++) {
+				double scale = (k == 0) ? Math.sqrt(0.125) : 0.5;
+				cos[k][j] = scale * Math.cos((2 * j + 1) * k * Math.PI / 16);
+			}
+		}
+	}
+
+	private final InverseDCT idct = new InverseDCT();
+
+	/**
+	 * Transforms a block with the transform under test.
+	 */
+	private interface Transform {
+		void transform(int block[][]);
+	}
+
+	@Test
+	public void testTransform() {
+		checkAccuracy("transform", 8, new Transform() {
+			@Override
+			public void transform(int block[][]) {
+				idct.transform(block);
+			}
+		});
+	}
+
+	@Test
+	public void testTransform4x4() {
+		checkAccuracy("transform4x4", 4, new Transform() {
+			@Override
+			public void transform(int block[][]) {
+				idct.transform4x4(block);
+			}
+		});
+	}
+
+	/**
+	 * A DC-only block is DC / 8 everywhere, which the reference transform
+	 * computes as DC * C(0)^2 / 4 with a C(0) slightly too small, so it
+	 * rounds the values exactly halfway between integers down rather than
+	 * up. The mean error of the IEEE 1180 procedure would only measure that;
+	 * instead each difference is checked to be such a value.
+	 */
+	@Test
+	public void testTransformDC() {
+		for (int r = 0; r < ranges.length; r++) {
+			for (int sign = 1; sign >= -1; sign -= 2) {
+				Random random = new Random();
+				for (int i = 0; i < BLOCKS; i++) {
+					int pels[][] = random.nextBlock(ranges[r][0], ranges[r][1]);
+					int coefficients[][] = forward(pels, 1);
+					coefficients[0][0] *= sign;
+
+					int expected[][] = copy(coefficients);
+					idct.referenceTransform(expected);
+					int actual[][] = copy(coefficients);
+					idct.transformDC(actual);
+
+					int dc = coefficients[0][0];
+					for (int y = 0; y < 8; y++) {
+						for (int x = 0; x < 8; x++) {
+							if (actual[y][x] != expected[y][x])
+								assertTrue("DC " + dc + " at " + y + "," + x, (dc & 7) == 4 && actual[y][x] == expected[y][x] + 1);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The sparse transforms must give exactly what the full transform does,
+	 * on the blocks they are used for.
+	 */
+	@Test
+	public void testSparseTransformsMatchFull() {
+		Random random = new Random();
+		for (int i = 0; i < BLOCKS; i++) {
+			for (int extent = 1; extent <= 4; extent *= 4) {
+				int coefficients[][] = forward(random.nextBlock(300, 300), extent);
+				int full[][] = copy(coefficients);
+				idct.transform(full);
+				int sparse[][] = copy(coefficients);
+				if (extent == 1)
+					idct.transformDC(sparse);
+				else
+					idct.transform4x4(sparse);
+				for (int y = 0; y < 8; y++) {
+					for (int x = 0; x < 8; x++)
+						assertEquals("extent " + extent + " block " + i + " at " + y + "," + x, full[y][x], sparse[y][x]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Blocks of the largest coefficients, with the signs that add up at
+	 * each pel, must not overflow the integer arithmetic. The pel
+	 * differences reach about 14000 there, and are within 2 of the
+	 * reference; an overflow would be off by thousands.
+	 */
+	@Test
+	public void testSaturatedBlocks() {
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 8; x++) {
+				for (int sign = -1; sign <= 1; sign += 2) {
+					int block[][] = new int[8][8];
+					for (int v = 0; v < 8; v++) {
+						for (int u = 0; u < 8; u++)
+							block[v][u] = (sign * cos[v][y] * cos[u][x] >= 0) ? 2047 : -2048;
+					}
+					int expected[][] = copy(block);
+					idct.referenceTransform(expected);
+					idct.transform(block);
+					for (int i = 0; i < 8; i++) {
+						for (int j = 0; j < 8; j++)
+							assertTrue("saturated block for " + y + "," + x + " at " + i + "," + j, Math.abs(expected[i][j] - block[i][j]) <= 2);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The scaled transforms must be within 1 of the N point inverse DCT in
+	 * double precision, scaled by N/8 and rounded, with no bias. At 1/4 and
+	 * 1/8 scale the exact values are multiples of 1/8, and those halfway
+	 * between integers come out of the double precision sums on either side
+	 * of the half; either rounding is taken as exact there.
+	 */
+	@Test
+	public void testTransformScaled() {
+		for (int shift = 1; shift <= 3; shift++) {
+			int n = 8 >> shift;
+			double basis[][] = new double[n][n];
+			for (int k = 0; k < n; k++) {
+				for (int j = 0; j < n; j++)
+					basis[k][j] = ((k == 0) ? Math.sqrt(1.0 / n) : Math.sqrt(2.0 / n)) * Math.cos((2 * j + 1) * k * Math.PI / (2 * n));
+			}
+
+			for (int r = 0; r < ranges.length; r++) {
+				Random random = new Random();
+				long totalError = 0;
+				for (int i = 0; i < BLOCKS; i++) {
+					int coefficients[][] = forward(random.nextBlock(ranges[r][0], ranges[r][1]), n);
+					int actual[][] = copy(coefficients);
+					idct.transformScaled(actual, shift);
+
+					for (int y = 0; y < n; y++) {
+						for (int x = 0; x < n; x++) {
+							double sum = 0.0;
+							for (int v = 0; v < n; v++) {
+								for (int u = 0; u < n; u++)
+									sum += basis[v][y] * basis[u][x] * coefficients[v][u];
+							}
+							double value = sum * n / 8;
+							int error = actual[y][x] - (int) Math.round(value);
+							if (Math.abs(value - Math.floor(value) - 0.5) < 1e-6 && Math.abs(actual[y][x] - value) < 0.5 + 1e-6)
+								error = 0;
+							assertTrue("1/" + (1 << shift) + " scale, block " + i + " at " + y + "," + x + ": error " + error, Math.abs(error) <= 1);
+							totalError += error;
+						}
+					}
+				}
+				double mean = (double) totalError / (n * n * BLOCKS);
+				assertTrue("1/" + (1 << shift) + " scale: mean error " + mean, Math.abs(mean) <= 0.0015);
+			}
+		}
+	}
+
+	@Test
+	public void testZeroBlock() {
+		int block[][] = new int[8][8];
+		idct.transform(block);
+		int sparse[][] = new int[8][8];
+		idct.transform4x4(sparse);
+		int dc[][] = new int[8][8];
+		idct.transformDC(dc);
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 8; x++) {
+				assertEquals(0, block[y][x]);
+				assertEquals(0, sparse[y][x]);
+				assertEquals(0, dc[y][x]);
+			}
+		}
+	}
+
+	/**
+	 * Runs the IEEE 1180 procedure, keeping only the top left
+	 * <code>extent</code> x <code>extent</code> coefficients of each block,
+	 * and checks the limits on peak error, mean square error and mean error.
+	 */
+	private void checkAccuracy(String name, int extent, Transform transform) {
+		for (int r = 0; r < ranges.length; r++) {
+			for (int sign = 1; sign >= -1; sign -= 2) {
+				Random random = new Random();
+				int peak = 0;
+				long errors[][] = new long[8][8];
+				long squaredErrors[][] = new long[8][8];
+
+				for (int i = 0; i < BLOCKS; i++) {
+					int pels[][] = random.nextBlock(ranges[r][0], ranges[r][1]);
+					for (int y = 0; y < 8; y++) {
+						for (int x = 0; x < 8; x++)
+							pels[y][x] *= sign;
+					}
+					int coefficients[][] = forward(pels, extent);
+
+					int expected[][] = copy(coefficients);
+					idct.referenceTransform(expected);
+					int actual[][] = copy(coefficients);
+					transform.transform(actual);
+
+					for (int y = 0; y < 8; y++) {
+						for (int x = 0; x < 8; x++) {
+							int error = clip(actual[y][x], -256, 255) - clip(expected[y][x], -256, 255);
+							peak = Math.max(peak, Math.abs(error));
+							errors[y][x] += error;
+							squaredErrors[y][x] += error * error;
+						}
+					}
+				}
+
+				String range = name + " for pels in [" + (-ranges[r][0]) + ", " + ranges[r][1] + "]" + ((sign < 0) ? ", negated" : "");
+				assertTrue(range + ": peak error " + peak, peak <= 1);
+
+				long totalError = 0;
+				long totalSquaredError = 0;
+				for (int y = 0; y < 8; y++) {
+					for (int x = 0; x < 8; x++) {
+						double mean = (double) errors[y][x] / BLOCKS;
+						double meanSquare = (double) squaredErrors[y][x] / BLOCKS;
+						assertTrue(range + ": mean error " + mean + " at " + y + "," + x, Math.abs(mean) <= 0.015);
+						assertTrue(range + ": mean square error " + meanSquare + " at " + y + "," + x, meanSquare <= 0.06);
+						totalError += errors[y][x];
+						totalSquaredError += squaredErrors[y][x];
+					}
+				}
+				double mean = (double) totalError / (64 * BLOCKS);
+				double meanSquare = (double) totalSquaredError / (64 * BLOCKS);
+				assertTrue(range + ": overall mean error " + mean, Math.abs(mean) <= 0.0015);
+				assertTrue(range + ": overall mean square error " + meanSquare, meanSquare <= 0.02);
+			}
+		}
+	}
+
+	/**
+	 * Forward transforms a block of pels in double precision, rounding the
+	 * coefficients and clipping them to [-2048, 2047].
+	 *
+	 * @param extent
+	 *            the coefficients outside the top left
+	 *            <code>extent</code> x <code>extent</code> are left at 0
+	 */
+	private static int[][] forward(int pels[][], int extent) {
+		int coefficients[][] = new int[8][8];
+		for (int v = 0; v < extent; v++) {
+			for (int u = 0; u < extent; u++) {
+				double sum = 0.0;
+				for (int y = 0; y < 8; y++) {
+					for (int x = 0; x < 8; x++)
+						sum += cos[v][y] * cos[u][x] * pels[y][x];
+				}
+				coefficients[v][u] = clip((int) Math.round(sum), -2048, 2047);
+			}
+		}
+		return coefficients;
+	}
+
+	private static int[][] copy(int block[][]) {
+		int result[][] = new int[8][];
+		for (int i = 0; i < 8; i++)
+			result[i] = block[i].clone();
+		return result;
+	}
+
+	private static int clip(int value, int min, int max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+	/**
+	 * The random number generator of IEEE 1180.
+	 */
+	private static class Random {
+		private int randx = 1;
+
+		/**
+		 * @return a random number in [-l, h]
+		 */
+		int next(int l, int h) {
+			randx = randx * 1103515245 + 12345;
+			int i = randx & 0x7ffffffe;
+			double x = (double) i / 0x7fffffff;
+			x *= l + h + 1;
+			return (int) x - l;
+		}
+
+		int[][] nextBlock(int l, int h) {
+			int block[][] = new int[8][8];
+			for (int y = 0; y < 8; y++) {
+				for (int x = 0; x < 8; x++)
+					block[y][x] = next(l, h);
+			}
+			return block;
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/***************************************
+ *            ViPER-MPEG               *
+ *  The Video Processing               *
+ *         Evaluation Resource         *
+ *             MPEG-1 Decoder          *
+ * Distributed under the LGPL license  *
+ *        Terms available at gnu.org.  *
+ *                                     *
+ *  Copyright University of Maryland,  *
+ *                      College Park.  *
+ ***************************************/
+
+package edu.umd.cfar.lamp.mpeg1.video;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import edu.columbia.ee.flavor.Bitstream;
+import edu.umd.cfar.lamp.mpeg1.ByteBufferBitstream;
+import edu.umd.cfar.lamp.mpeg1.ParsingException;
+
+/**
+ * Checks each lookup table against the nested <code>switch</code> parser it
+ * replaced, for every pattern of as many bits as its longest code: both must
+ * decode the same value from the same number of bits, or both must reject
+ * the pattern. The escape, end_of_block, macroblock_stuffing and
+ * macroblock_escape codes, which the tables decode too, were scanned for by
+ * <code>Block</code> and <code>Macroblock</code> before calling the old
+ * parsers; those scans are repeated here.
+ */
+public class VlcTableTest {
+	/**
+	 * Decodes one code, describing the result.
+	 */
+	private interface Decoder {
+		String decode(Bitstream bitstream) throws IOException;
+	}
+
+	@Test
+	public void testMacroblockAddressIncrement() throws IOException {
+		checkAllCodes("macroblock_address_increment", 11, new Decoder() {
+			private LegacyMacroblockAddressIncrement legacy = new LegacyMacroblockAddressIncrement();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				while (bitstream.nextbits(11) == 15) // 0000.0001.111 (stuffing)
+					bitstream.skipbits(11);
+				int increment = 0;
+				while (bitstream.nextbits(11) == 8) { // 0000.0001.000 (macroblock_escape)
+					bitstream.skipbits(11);
+					increment += 33;
+				}
+				legacy.parse(bitstream);
+				return Integer.toString(increment + legacy.getValue());
+			}
+		}, new Decoder() {
+			private MacroblockAddressIncrement mai = new MacroblockAddressIncrement();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				mai.parse(bitstream);
+				return Integer.toString(mai.getValue());
+			}
+		});
+	}
+
+	@Test
+	public void testMotionVector() throws IOException {
+		checkAllCodes("motion code", 11, new Decoder() {
+			private LegacyMotionVector legacy = new LegacyMotionVector();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				legacy.parse(bitstream);
+				return Integer.toString(legacy.getValue());
+			}
+		}, new Decoder() {
+			private MotionVector mv = new MotionVector();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				mv.parse(bitstream);
+				return Integer.toString(mv.getValue());
+			}
+		});
+	}
+
+	@Test
+	public void testMacroblockPattern() throws IOException {
+		checkAllCodes("coded_block_pattern", 9, new Decoder() {
+			private LegacyMacroblockPattern legacy = new LegacyMacroblockPattern();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				legacy.parse(bitstream);
+				return Integer.toString(legacy.getValue());
+			}
+		}, new Decoder() {
+			private MacroblockPattern mp = new MacroblockPattern();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				mp.parse(bitstream);
+				return Integer.toString(mp.getValue());
+			}
+		});
+	}
+
+	@Test
+	public void testDCTCoefficientFirst() throws IOException {
+		checkAllCodes("dct_coeff_first", 17, new Decoder() {
+			private LegacyDCTCoefficientFirst legacy = new LegacyDCTCoefficientFirst();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				if (bitstream.nextbits(6) == 1) {
+					bitstream.skipbits(6);
+					return "escape";
+				}
+				legacy.parse(bitstream);
+				return describe(legacy.getValue());
+			}
+		}, new Decoder() {
+			private DCTCoefficientFirst dctFirst = new DCTCoefficientFirst();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				dctFirst.parse(bitstream);
+				return dctFirst.isEscape() ? "escape" : describe(dctFirst.getValue());
+			}
+		});
+	}
+
+	@Test
+	public void testDCTCoefficientNext() throws IOException {
+		checkAllCodes("dct_coeff_next", 17, new Decoder() {
+			private LegacyDCTCoefficientNext legacy = new LegacyDCTCoefficientNext();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				if (bitstream.nextbits(2) == 2) {
+					bitstream.skipbits(2);
+					return "end_of_block";
+				}
+				if (bitstream.nextbits(6) == 1) {
+					bitstream.skipbits(6);
+					return "escape";
+				}
+				legacy.parse(bitstream);
+				return describe(legacy.getValue());
+			}
+		}, new Decoder() {
+			private DCTCoefficientNext dctNext = new DCTCoefficientNext();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				dctNext.parse(bitstream);
+				if (dctNext.isEndOfBlock())
+					return "end_of_block";
+				return dctNext.isEscape() ? "escape" : describe(dctNext.getValue());
+			}
+		});
+	}
+
+	@Test
+	public void testDCTCoefficientEscapeLevel() throws IOException {
+		checkAllCodes("escape level", 16, new Decoder() {
+			private LegacyDCTCoefficientEscapeLevel legacy = new LegacyDCTCoefficientEscapeLevel();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				legacy.parse(bitstream);
+				return Integer.toString(legacy.getValue());
+			}
+		}, new Decoder() {
+			private DCTCoefficientEscapeLevel escLevel = new DCTCoefficientEscapeLevel();
+
+			@Override
+			public String decode(Bitstream bitstream) throws IOException {
+				escLevel.parse(bitstream);
+				return Integer.toString(escLevel.getValue());
+			}
+		});
+	}
+
+	private static String describe(DCTCoefficientValues value) {
+		return "run " + value.getRun() + " level " + value.getLevel();
+	}
+
+	/**
+	 * Decodes every pattern of <code>bits</code> bits, each followed by a 1
+	 * bit and then zeros, with both decoders. The new decoder reads from both
+	 * kinds of bitstream, as it peeks differently at each.
+	 */
+	private static void checkAllCodes(String name, int bits, Decoder expected, Decoder actual) throws IOException {
+		for (int pattern = 0; pattern < (1 << bits); pattern++) {
+			long word = ((long) pattern << (64 - bits)) | (1L << (63 - bits));
+			byte data[] = new byte[16];
+			for (int i = 0; i < 8; i++)
+				data[i] = (byte) (word >>> (56 - 8 * i));
+
+			String result = decode(expected, new Bitstream(new ByteArrayInputStream(data)));
+			String message = name + " from " + toBinary(pattern, bits);
+			assertEquals(message, result, decode(actual, new Bitstream(new ByteArrayInputStream(data))));
+			assertEquals(message, result, decode(actual, new ByteBufferBitstream(ByteBuffer.wrap(data))));
+		}
+	}
+
+	private static String decode(Decoder decoder, Bitstream bitstream) throws IOException {
+		try {
+			String value = decoder.decode(bitstream);
+			return value + " in " + bitstream.getpos() + " bits";
+		} catch (ParsingException e) {
+			return "invalid";
+		}
+	}
+
+	private static String toBinary(int pattern, int bits) {
+		StringBuilder s = new StringBuilder();
+		for (int i = bits - 1; i >= 0; i--)
+			s.append((pattern >>> i) & 1);
+		return s.toString();
+	}
+}